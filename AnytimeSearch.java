@@ -0,0 +1,122 @@
+// ============================================================
+// Búsqueda del ancho óptimo con tiempo acotado ("anytime").
+//
+// Recorre los anchos como findOptimalWidthAndRiverWithJumps (un
+// layout por breakpoint, de menor a mayor), con las mismas podas
+// por cota (RiverBound.DEFAULTS), el mismo fin demostrable
+// (ProblemaP1.searchIsOver) y el mismo early stopping. Si se acaba
+// el tiempo, retorna el mejor {ancho, río} encontrado hasta ahí.
+//
+// La cancelación es cooperativa: el reloj se consulta antes de
+// cada layout y dentro de la DP (RiverEngine.longestRiver con
+// deadline), así que una DP larga no hace esperar la respuesta.
+//
+// Cota superior: el número de líneas no crece con el ancho, así
+// que ningún ancho no evaluado (todos >= el ancho donde se cortó)
+// tiene un río más largo que las líneas del último layout
+// calculado. upperBound = max(río encontrado, esas líneas); si no
+// supera al río encontrado, el resultado es óptimo (a igual río
+// gana el ancho menor, que ya es el encontrado).
+//
+// Con tiempo suficiente el resultado es exactamente el de
+// ProblemaP1.findOptimalWidthAndRiver y isOptimal() es true.
+// ============================================================
+public final class AnytimeSearch {
+
+    private final int width;
+    private final int river;
+    private final int upperBound;
+    private final boolean optimal;
+    // Todos los anchos menores que este quedaron evaluados
+    private final int searchedBelow;
+
+    private AnytimeSearch(int width, int river, int upperBound, int searchedBelow) {
+        this.width = width;
+        this.river = river;
+        this.upperBound = Math.max(river, upperBound);
+        this.optimal = this.upperBound == river;
+        this.searchedBelow = searchedBelow;
+    }
+
+    public static AnytimeSearch find(String text, long budgetMillis) {
+        long deadline = System.nanoTime() + budgetMillis * 1_000_000L;
+        return findUntil(WordTokens.tokenize(text), deadline);
+    }
+
+    public static AnytimeSearch find(WordTokens tokens, long budgetMillis) {
+        return findUntil(tokens, System.nanoTime() + budgetMillis * 1_000_000L);
+    }
+
+    // ============================================================
+    // Igual que find, con un instante límite de System.nanoTime()
+    // (para quien ya descontó su propio tiempo del presupuesto).
+    // ============================================================
+    public static AnytimeSearch findUntil(WordTokens tokens, long deadline) {
+        int minWidth = tokens.maxWordLength;
+        int maxWidth = tokens.textLength - 1;
+        if (maxWidth < minWidth) {
+            return new AnytimeSearch(minWidth, 0, 0, minWidth);
+        }
+        int bestWidth = minWidth;
+        int bestRiver = 0;
+        // Antes del primer layout: cada línea tiene al menos una palabra
+        int linesBound = tokens.numWords;
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
+        RiverBound[] bounds = RiverBound.DEFAULTS;
+        int width = minWidth;
+        while (width <= maxWidth) {
+            if (System.nanoTime() - deadline >= 0) {
+                return new AnytimeSearch(bestWidth, bestRiver, linesBound, width);
+            }
+            tokens.layout(width, layout);
+            linesBound = layout.numLines;
+            if (ProblemaP1.searchIsOver(layout.numLines, bestRiver)) {
+                break;
+            }
+            if (!ProblemaP1.pruned(tokens, layout, bounds, bestRiver, null)) {
+                int river = engine.longestRiver(tokens, layout, deadline);
+                if (river == RiverEngine.CANCELLED) {
+                    return new AnytimeSearch(bestWidth, bestRiver, linesBound, width);
+                }
+                if (river > bestRiver) {
+                    bestRiver = river;
+                    bestWidth = width;
+                }
+                if (river == layout.numLines) {
+                    break;
+                }
+            }
+            width = tokens.nextBreakpoint(layout);
+        }
+        return new AnytimeSearch(bestWidth, bestRiver, bestRiver, width);
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int river() {
+        return river;
+    }
+
+    // Ningún ancho tiene un río más largo que este valor
+    public int upperBound() {
+        return upperBound;
+    }
+
+    // true si {width, river} es el resultado de la búsqueda completa
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    // Primer ancho que no se alcanzó a evaluar (o donde terminó la búsqueda)
+    public int searchedBelow() {
+        return searchedBelow;
+    }
+
+    @Override
+    public String toString() {
+        return width + " " + river + (optimal ? " óptimo" : " cota=" + upperBound);
+    }
+}
@@ -0,0 +1,198 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// ============================================================
+// Procesa la entrada multi-caso de ProblemaP1 como un flujo:
+//
+//   t
+//   texto_1
+//   ...
+//   texto_t
+//
+// y escribe "ancho río" por caso, en el mismo orden.
+//
+// - Lectura: bytes con un buffer propio (sin Scanner ni regex).
+//   Cada texto pasa de los bytes de la línea a un CompactText
+//   (sin String intermedio si el charset por defecto es UTF-8,
+//   ISO-8859-1 o US-ASCII) con la misma semántica que
+//   new Scanner(System.in) + trim().
+// - Escritura: un único BufferedWriter, vaciado al final.
+// - Con threads > 1 los casos se resuelven en paralelo, pero se
+//   escriben en orden. Como mucho hay 2 * threads casos en vuelo,
+//   así que la memoria no depende del número de casos.
+// ============================================================
+public final class BatchRunner {
+
+    private BatchRunner() {
+    }
+
+    public static void run(InputStream in, OutputStream out, int threads) throws IOException {
+        run(in, out, threads, RiverSolvers.get("sweep"));
+    }
+
+    // Igual que run(in, out, threads) resolviendo cada caso con 'solver'
+    public static void run(InputStream in, OutputStream out, int threads, RiverSolver solver)
+            throws IOException {
+        Charset charset = Charset.defaultCharset();
+        LineReader reader = new LineReader(in, charset);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), 1 << 16);
+        String first = reader.readLine();
+        if (first == null) {
+            writer.flush();
+            return;
+        }
+        int t = Integer.parseInt(first.trim());
+        if (threads <= 1) {
+            for (int i = 0; i < t; i++) {
+                CompactText texto = reader.readText();
+                if (texto == null) {
+                    break;
+                }
+                writeResult(writer, solver.solve(texto));
+            }
+        } else {
+            runParallel(reader, writer, t, threads, solver);
+        }
+        writer.flush();
+    }
+
+    // Ventana de casos en vuelo; se escribe siempre el más antiguo
+    private static void runParallel(LineReader reader, Writer writer, int t, int threads,
+                                    RiverSolver solver) throws IOException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<int[]>> pending = new ArrayDeque<>();
+        int window = 2 * threads;
+        try {
+            for (int i = 0; i < t; i++) {
+                CompactText caso = reader.readText();
+                if (caso == null) {
+                    break;
+                }
+                pending.addLast(pool.submit(() -> solver.solve(caso)));
+                if (pending.size() >= window) {
+                    writeResult(writer, await(pending.removeFirst()));
+                }
+            }
+            while (!pending.isEmpty()) {
+                writeResult(writer, await(pending.removeFirst()));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static int[] await(Future<int[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Procesamiento interrumpido", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error procesando un caso", e.getCause());
+        }
+    }
+
+    private static void writeResult(Writer writer, int[] result) throws IOException {
+        writer.write(Integer.toString(result[0]));
+        writer.write(' ');
+        writer.write(Integer.toString(result[1]));
+        writer.write('\n');
+    }
+
+    // ============================================================
+    // Lector de líneas sobre bytes. Reconoce "\n", "\r\n" y "\r"
+    // como fin de línea. Retorna null al final de la entrada.
+    // ============================================================
+    static final class LineReader {
+
+        private final InputStream in;
+        private final Charset charset;
+        private final byte[] buffer = new byte[1 << 16];
+        private int pos = 0;
+        private int limit = 0;
+        private byte[] line = new byte[1 << 12];
+        private boolean skipLf = false;
+        private final boolean asciiCompatible;
+
+        LineReader(InputStream in, Charset charset) {
+            this.in = in;
+            this.charset = charset;
+            this.asciiCompatible = charset.equals(StandardCharsets.UTF_8)
+                    || charset.equals(StandardCharsets.ISO_8859_1)
+                    || charset.equals(StandardCharsets.US_ASCII);
+        }
+
+        String readLine() throws IOException {
+            int length = readRaw();
+            return length < 0 ? null : new String(line, 0, length, charset);
+        }
+
+        // ========================================================
+        // Siguiente línea sin espacios ni controles en los extremos
+        // (como String.trim()), como CompactText. En charsets
+        // compatibles con ASCII el recorte se hace sobre los bytes.
+        // ========================================================
+        CompactText readText() throws IOException {
+            int length = readRaw();
+            if (length < 0) {
+                return null;
+            }
+            if (!asciiCompatible) {
+                return CompactText.of(new String(line, 0, length, charset).trim());
+            }
+            int from = 0;
+            // Bytes 0x00..0x20: los mismos caracteres que quita trim()
+            while (from < length && (line[from] & 0xFF) <= ' ') {
+                from++;
+            }
+            while (length > from && (line[length - 1] & 0xFF) <= ' ') {
+                length--;
+            }
+            return CompactText.decode(line, from, length - from, charset);
+        }
+
+        // Lee la siguiente línea en 'line'; retorna su longitud o -1
+        private int readRaw() throws IOException {
+            int length = 0;
+            boolean any = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    pos = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return any ? length : -1;
+                    }
+                }
+                byte b = buffer[pos++];
+                if (skipLf) {
+                    skipLf = false;
+                    if (b == '\n') {
+                        continue;
+                    }
+                }
+                any = true;
+                if (b == '\n' || b == '\r') {
+                    skipLf = b == '\r';
+                    return length;
+                }
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, line.length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// ============================================================
+// Texto guardado como byte[] en lugar de String.
+//
+// Dos codificaciones:
+// - LATIN1: un byte por carácter. Se usa cuando todos los
+//   caracteres son <= U+00FF (p.ej. los corpus, incluido A-Z con
+//   "²³~ ©«» ¤¼×"). La columna de un byte es su posición.
+// - UTF8: para el resto. Las columnas se cuentan al tokenizar,
+//   byte a byte (ver columnsOf y WordTokens.tokenize).
+//
+// Las columnas son las del String equivalente (unidades UTF-16):
+// un carácter fuera del BMP ocupa 2 columnas, igual que en
+// String.length(). Así los anchos y ríos calculados sobre este
+// texto coinciden exactamente con los del solver sobre String.
+// ============================================================
+public final class CompactText {
+
+    final byte[] bytes;
+    final int byteLength;
+    final boolean latin1;
+    // Longitud en caracteres (unidades UTF-16), = String.length()
+    final int charLength;
+
+    private CompactText(byte[] bytes, int byteLength, boolean latin1, int charLength) {
+        this.bytes = bytes;
+        this.byteLength = byteLength;
+        this.latin1 = latin1;
+        this.charLength = charLength;
+    }
+
+    // ============================================================
+    // Desde un String: Latin-1 si todos los caracteres caben en un
+    // byte, si no UTF-8.
+    // ============================================================
+    public static CompactText of(String texto) {
+        int n = texto.length();
+        boolean fits = true;
+        for (int i = 0; i < n && fits; i++) {
+            fits = texto.charAt(i) <= 0xFF;
+        }
+        if (fits) {
+            return new CompactText(texto.getBytes(StandardCharsets.ISO_8859_1), n, true, n);
+        }
+        byte[] utf8 = texto.getBytes(StandardCharsets.UTF_8);
+        return new CompactText(utf8, utf8.length, false, n);
+    }
+
+    // ============================================================
+    // Desde bytes codificados con 'charset', sin pasar por String
+    // cuando el charset es UTF-8, ISO-8859-1 o US-ASCII. Con otro
+    // charset, o con UTF-8 mal formado (donde el decodificador de
+    // String pondría U+FFFD), se decodifica a String para conservar
+    // exactamente la misma semántica.
+    // ============================================================
+    public static CompactText decode(byte[] data, int offset, int length, Charset charset) {
+        if (charset.equals(StandardCharsets.ISO_8859_1)) {
+            return new CompactText(Arrays.copyOfRange(data, offset, offset + length), length, true, length);
+        }
+        if (charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) {
+            int ascii = 0;
+            while (ascii < length && data[offset + ascii] >= 0) {
+                ascii++;
+            }
+            if (ascii == length) {
+                return new CompactText(Arrays.copyOfRange(data, offset, offset + length), length, true, length);
+            }
+            if (charset.equals(StandardCharsets.UTF_8)) {
+                CompactText text = fromUtf8(data, offset, length);
+                if (text != null) {
+                    return text;
+                }
+            }
+        }
+        return of(new String(data, offset, length, charset));
+    }
+
+    // UTF-8 bien formado -> Latin-1 si es posible, si no UTF-8 tal cual.
+    // Retorna null si los bytes no son UTF-8 válido.
+    private static CompactText fromUtf8(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int chars = utf8Length(ByteBuffer.wrap(data), offset, end);
+        if (chars < 0) {
+            return null;
+        }
+        // Un carácter > U+00FF empieza con un byte >= 0xC4
+        boolean fitsLatin1 = true;
+        for (int i = offset; i < end && fitsLatin1; i++) {
+            fitsLatin1 = (data[i] & 0xFF) < 0xC4;
+        }
+        if (!fitsLatin1) {
+            return new CompactText(Arrays.copyOfRange(data, offset, end), length, false, chars);
+        }
+        // Todo <= U+00FF: transcodificar a un byte por carácter
+        byte[] out = new byte[chars];
+        int j = 0;
+        for (int i = offset; i < end; j++) {
+            int b = data[i] & 0xFF;
+            if (b < 0x80) {
+                out[j] = (byte) b;
+                i++;
+            } else {
+                out[j] = (byte) (((b & 0x1F) << 6) | (data[i + 1] & 0x3F));
+                i += 2;
+            }
+        }
+        return new CompactText(out, chars, true, chars);
+    }
+
+    // ============================================================
+    // Longitud en caracteres (unidades UTF-16) de los bytes
+    // [from, to) de 'buf' como UTF-8, o -1 si no es UTF-8 bien
+    // formado (secuencias cortadas, formas largas, surrogates o
+    // valores > U+10FFFF).
+    // ============================================================
+    static int utf8Length(ByteBuffer buf, int from, int to) {
+        int chars = 0;
+        int i = from;
+        while (i < to) {
+            int b = buf.get(i) & 0xFF;
+            int size;
+            int min;
+            if (b < 0x80) {
+                i++;
+                chars++;
+                continue;
+            } else if (b >= 0xC2 && b <= 0xDF) {
+                size = 2;
+                min = 0x80;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                size = 3;
+                min = 0x800;
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                size = 4;
+                min = 0x10000;
+            } else {
+                return -1;
+            }
+            if (i + size > to) {
+                return -1;
+            }
+            int cp = b & (0x7F >> size);
+            for (int k = 1; k < size; k++) {
+                int c = buf.get(i + k) & 0xFF;
+                if ((c & 0xC0) != 0x80) {
+                    return -1;
+                }
+                cp = (cp << 6) | (c & 0x3F);
+            }
+            if (cp < min || cp > 0x10FFFF || (cp >= 0xD800 && cp <= 0xDFFF)) {
+                return -1;
+            }
+            chars += cp >= 0x10000 ? 2 : 1;
+            i += size;
+        }
+        return chars;
+    }
+
+    // Columnas que aporta un byte UTF-8: 0 las continuaciones, 2 el
+    // inicio de un carácter de 4 bytes (par surrogate), 1 el resto
+    static int columnsOf(byte b) {
+        if ((b & 0xC0) == 0x80) {
+            return 0;
+        }
+        return (b & 0xF8) == 0xF0 ? 2 : 1;
+    }
+
+    public boolean isLatin1() {
+        return latin1;
+    }
+
+    public int charLength() {
+        return charLength;
+    }
+
+    public int byteLength() {
+        return byteLength;
+    }
+
+    @Override
+    public String toString() {
+        return new String(bytes, 0, byteLength,
+                latin1 ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+}
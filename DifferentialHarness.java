@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// ============================================================
+// Verificación diferencial de todos los solvers registrados.
+//
+// Corre cada solver sobre:
+// - cada archivo de los corpus (CasosDePrueba*), comparando con el
+//   resultado del solver de referencia ("sweep");
+// - cada caso de los pares inputExample*.txt / outputExample*.txt,
+//   comparando con la salida esperada.
+//
+// Cualquier diferencia se reporta y el proceso termina con código 1.
+// Además emite un reporte (CSV por defecto, o JSON) con tiempo y
+// bytes asignados por solver y archivo.
+//
+// Uso:
+//   java DifferentialHarness [--solvers=a,b,...] [--json]
+//                            [--runs=N] [--legacy-limit=chars]
+//                            [--out=archivo]
+// Los solvers v1 y v2 construyen Strings en cada ancho
+// y son muy lentos en textos grandes; se saltan en textos más
+// largos que --legacy-limit (20000 por defecto).
+// ============================================================
+public final class DifferentialHarness {
+
+    private static final String REFERENCE = "sweep";
+    private static final List<String> LEGACY = Arrays.asList("v1", "v2");
+    private static final String[] EXAMPLES = {"", "AZ", "Cicero", "LiLanguages", "LoremIpsum"};
+
+    private DifferentialHarness() {
+    }
+
+    // Una fila del reporte
+    private static final class Row {
+        String solver;
+        String source;
+        int chars;
+        int width;
+        int river;
+        double millis;
+        long bytes;
+        String status;
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<String> solvers = RiverSolvers.names();
+        boolean json = false;
+        int runs = 1;
+        int legacyLimit = 20000;
+        PrintStream out = System.out;
+        for (String arg : args) {
+            if (arg.startsWith("--solvers=")) {
+                solvers = Arrays.asList(arg.substring("--solvers=".length()).split(","));
+            } else if (arg.equals("--json")) {
+                json = true;
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--legacy-limit=")) {
+                legacyLimit = Integer.parseInt(arg.substring("--legacy-limit=".length()));
+            } else if (arg.startsWith("--out=")) {
+                out = new PrintStream(arg.substring("--out=".length()), "UTF-8");
+            } else {
+                throw new IllegalArgumentException("Opción desconocida: " + arg);
+            }
+        }
+        List<Row> rows = new ArrayList<>();
+        int mismatches = 0;
+
+        // Corpus: referencia = solver "sweep"
+        for (Path file : RiverBenchmark.corpusFiles()) {
+            String texto = RiverBenchmark.readFirstLine(file);
+            int[] expected = RiverSolvers.get(REFERENCE).solve(texto);
+            mismatches += runAll(solvers, file.toString(), texto, expected, runs, legacyLimit, rows);
+        }
+        // Pares de ejemplo: referencia = salida esperada
+        for (String suffix : EXAMPLES) {
+            Path input = Paths.get("inputExample" + suffix + ".txt");
+            Path output = Paths.get("outputExample" + suffix + ".txt");
+            if (!Files.exists(input) || !Files.exists(output)) {
+                continue;
+            }
+            List<String> in = Files.readAllLines(input, StandardCharsets.UTF_8);
+            List<String> expectedLines = Files.readAllLines(output, StandardCharsets.UTF_8);
+            int t = Integer.parseInt(in.get(0).trim());
+            for (int i = 0; i < t; i++) {
+                String texto = in.get(i + 1).trim();
+                String[] parts = expectedLines.get(i).trim().split(" ");
+                int[] expected = {Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+                String source = input + "#" + (i + 1);
+                mismatches += runAll(solvers, source, texto, expected, runs, legacyLimit, rows);
+            }
+        }
+
+        if (json) {
+            writeJson(out, rows);
+        } else {
+            writeCsv(out, rows);
+        }
+        out.flush();
+        System.err.println(mismatches == 0
+                ? "OK: todos los solvers coinciden (" + rows.size() + " ejecuciones)"
+                : "ERROR: " + mismatches + " resultados distintos");
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static int runAll(List<String> solvers, String source, String texto, int[] expected,
+                              int runs, int legacyLimit, List<Row> rows) {
+        int mismatches = 0;
+        for (String name : solvers) {
+            Row row = new Row();
+            row.solver = name;
+            row.source = source;
+            row.chars = texto.length();
+            if (LEGACY.contains(name) && texto.length() > legacyLimit) {
+                row.status = "skipped";
+                rows.add(row);
+                continue;
+            }
+            RiverSolver solver = RiverSolvers.get(name);
+            // Una ejecución de calentamiento, luego 'runs' medidas
+            int[] result = solver.solve(texto);
+            long nanos = 0;
+            long bytes = 0;
+            for (int r = 0; r < runs; r++) {
+                long bytesBefore = RiverBenchmark.allocatedBytes();
+                long start = System.nanoTime();
+                result = solver.solve(texto);
+                nanos += System.nanoTime() - start;
+                bytes += RiverBenchmark.allocatedBytes() - bytesBefore;
+            }
+            row.width = result[0];
+            row.river = result[1];
+            row.millis = nanos / 1e6 / runs;
+            row.bytes = bytes / runs;
+            if (result[0] == expected[0] && result[1] == expected[1]) {
+                row.status = "ok";
+            } else {
+                row.status = "MISMATCH(expected " + expected[0] + " " + expected[1] + ")";
+                mismatches++;
+                System.err.println("Diferencia: " + name + " en " + source + ": "
+                        + result[0] + " " + result[1] + " vs " + expected[0] + " " + expected[1]);
+            }
+            rows.add(row);
+        }
+        return mismatches;
+    }
+
+    private static void writeCsv(PrintStream out, List<Row> rows) {
+        out.println("solver,source,chars,width,river,millis,bytes,status");
+        for (Row r : rows) {
+            out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%.3f,%d,%s%n",
+                    r.solver, r.source, r.chars, r.width, r.river, r.millis, r.bytes, r.status);
+        }
+    }
+
+    private static void writeJson(PrintStream out, List<Row> rows) {
+        out.println("[");
+        for (int i = 0; i < rows.size(); i++) {
+            Row r = rows.get(i);
+            out.printf(Locale.ROOT,
+                    "  {\"solver\": \"%s\", \"source\": \"%s\", \"chars\": %d, \"width\": %d, "
+                            + "\"river\": %d, \"millis\": %.3f, \"bytes\": %d, \"status\": \"%s\"}%s%n",
+                    json(r.solver), json(r.source), r.chars, r.width, r.river, r.millis, r.bytes,
+                    json(r.status), i + 1 < rows.size() ? "," : "");
+        }
+        out.println("]");
+    }
+
+    // Contenido de un string JSON: escapa comillas, barras invertidas y controles
+    static String json(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+}
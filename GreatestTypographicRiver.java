@@ -280,11 +280,17 @@ public class GreatestTypographicRiver {
                 System.out.println("Río más largo: " + longestRiver);
                 System.out.println("Tiempo de ejecución: " + executionTime + " ms");
                 
-                // Opcional: mostrar la matriz con el ancho óptimo
+                // Opcional: mostrar el layout óptimo con el río marcado
                 if (texto.length() < 200) {
                     System.out.println("\nVisualización con ancho óptimo:");
-                    String[][] matriz = textToMatrix(texto, optimalWidth);
-                    printMatrix(matriz);
+                    // Un solo layout, con el ancho ya calculado
+                    WordTokens tokens = WordTokens.tokenize(texto);
+                    LineLayout layout = new LineLayout();
+                    if (tokens.layout(optimalWidth, layout)) {
+                        java.io.Writer out = new java.io.PrintWriter(System.out);
+                        RiverRenderer.render(texto, tokens,
+                                new RiverEngine().longestRiverPath(tokens, layout), out);
+                    }
                 }
                 
             } catch (java.io.FileNotFoundException e) {
@@ -123,7 +123,7 @@ public class GreatestTypographicRiverV2 {
     //
     // Explora todos los anchos posibles desde:
     // - minWidth = palabra más larga
-    // - maxWidth = min(longitud total - 1, 500)
+    // - maxWidth = longitud total - 1 (con más, todo cabe en una línea)
     //
     // Aplica optimizaciones:
     // 1. Saltar configuraciones imposibles
@@ -137,10 +137,10 @@ public class GreatestTypographicRiverV2 {
         for (String word : words) {
             minWidth = Math.max(minWidth, word.length());
         }
-        // Definir ancho máximo razonable
-        // Se limita a 500 para evitar explorar anchos excesivamente grandes
+        // Ancho máximo: sin tope fijo, el barrido termina en cuanto
+        // ningún ancho mayor puede ganar (ver ProblemaP1.searchIsOver)
         int totalLength = text.length();
-        int maxWidth = Math.min(totalLength - 1, 5000);
+        int maxWidth = totalLength - 1;
         // Si el ancho máximo es menor que el mínimo posible,
         // no existe configuración válida
         if (maxWidth < minWidth) {
@@ -153,18 +153,17 @@ public class GreatestTypographicRiverV2 {
         // Probar todos los anchos posibles
         for (int width = minWidth; width <= maxWidth; width++) {
             String[] lines = textToLines(text, width);
-            // Si la partición no es válida o hay menos de 2 líneas,
-            // no puede existir río
-            if (lines == null || lines.length < 2) {
+            // Si la partición no es válida, no puede existir río
+            if (lines == null) {
                 continue;
             }
             // Optimización importante:
             // Un río no puede ser más largo que el número total de líneas,
-            // porque cada línea solo puede aportar 1 unidad de longitud.
-            // Si el número de líneas es menor que el mejor río ya encontrado,
-            // esta configuración jamás podrá superarlo.
-            if (lines.length < bestRiver) {
-                continue;
+            // porque cada línea solo puede aportar 1 unidad de longitud,
+            // y el número de líneas no crece con el ancho. Si ya no hay
+            // más líneas que el mejor río, ningún ancho mayor lo supera.
+            if (ProblemaP1.searchIsOver(lines.length, bestRiver)) {
+                break;
             }
             int river = findLongestRiverOptimized(lines);
             // Actualizar mejor solución encontrada
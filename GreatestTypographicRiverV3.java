@@ -72,105 +72,122 @@ public class GreatestTypographicRiverV3 {
     }
 
     /**
-     * Compara si dos arrays de strings son iguales
+     * OPTIMIZACIÓN 3: Saltar a anchos que cambien el layout
+     * Encuentra el ancho óptimo saltando breakpoints
      */
-    private static boolean arraysEqual(String[] a, String[] b) {
-        if (a == null || b == null) return false;
-        if (a.length != b.length) return false;
-        for (int i = 0; i < a.length; i++) {
-            if (!a[i].equals(b[i])) return false;
-        }
-        return true;
+    public static int[] findOptimalWidthAndRiverWithJumps(String text) {
+        return findOptimalWidthAndRiverWithJumps(text, null);
     }
 
     /**
-     * Encuentra el siguiente ancho donde el layout cambia significativamente
-     * 
+     * Igual que findOptimalWidthAndRiverWithJumps(String), acumulando en
+     * stats el número de layouts distintos evaluados.
+     *
+     * El siguiente ancho se calcula de forma exacta con
+     * WordTokens.nextBreakpoint (el menor ancho en que alguna línea
+     * absorbe la palabra que la rompió), así que cada ancho visitado
+     * tiene un layout distinto al anterior y no hace falta comparar líneas.
+     *
      * @param text Texto completo
-     * @param currentWidth Ancho actual
-     * @param currentLines Layout actual
-     * @param maxWidth Ancho máximo a considerar
-     * @return Siguiente ancho donde cambia el layout, o currentWidth + 1 si no hay cambio cercano
+     * @param stats Contadores a acumular (puede ser null)
+     * @return {ancho óptimo, río más largo}
      */
-    private static int findNextBreakpoint(String text, int currentWidth, 
-                                         String[] currentLines, int maxWidth) {
-        if (currentLines == null) {
-            return currentWidth + 1;
-        }        
-        int currentNumLines = currentLines.length;
-        
-        // Buscar el siguiente ancho donde cambie el número de líneas
-        // Limitamos la búsqueda a un rango razonable para no hacer demasiadas llamadas
-        int searchLimit = Math.min(currentWidth + 50, maxWidth);        
-        for (int w = currentWidth + 1; w <= searchLimit; w++) {
-            String[] newLines = textToLines(text, w);            
-            if (newLines == null) {
-                continue;
-            }            
-            // Si cambia el número de líneas, este es un breakpoint importante
-            if (newLines.length != currentNumLines) {
-                return w;
-            }            
-            // Si el contenido de las líneas cambió, también es un breakpoint
-            if (!arraysEqual(newLines, currentLines)) {
-                return w;
-            }
-        }        
-        // Si no encontramos cambio en el rango, avanzar al siguiente
-        return currentWidth + 1;
+    public static int[] findOptimalWidthAndRiverWithJumps(String text, SearchStats stats) {
+        return findOptimalWidthAndRiverWithJumps(WordTokens.tokenize(text), stats);
     }
+
     /**
-     * OPTIMIZACIÓN 3: Saltar a anchos que cambien el layout
-     * Encuentra el ancho óptimo saltando breakpoints
+     * Versión con saltos sobre el texto ya tokenizado. Cada layout se
+     * calcula una sola vez (tokens.layout) y de él sale el siguiente
+     * breakpoint (tokens.nextBreakpoint), así que no hace falta guardarlos.
+     * Con -Dp1.checkpoint.dir la búsqueda se retoma desde el último
+     * checkpoint del texto (ver SearchCheckpoint).
      */
-    public static int[] findOptimalWidthAndRiverWithJumps(String text) {
-        String[] words = text.split(" ");
-        int minWidth = 0;
-        for (String word : words) {
-            minWidth = Math.max(minWidth, word.length());
-        }        
-        int totalLength = text.length();
-        int maxWidth = Math.min(totalLength - 1, 5000);        
+    public static int[] findOptimalWidthAndRiverWithJumps(WordTokens tokens, SearchStats stats) {
+        int minWidth = tokens.maxWordLength();
+        int maxWidth = tokens.textLength() - 1;
         if (maxWidth < minWidth) {
             return new int[]{minWidth, 0};
-        }        
+        }
         int bestWidth = minWidth;
         int bestRiver = 0;
-        String[] prevLines = null;
+        long allocatedBefore = 0;
+        long t0 = 0;
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.SEARCHES.increment();
+            allocatedBefore = RiverMetrics.threadAllocatedBytes();
+        }
+        // Retomar una búsqueda interrumpida (ver SearchCheckpoint)
         int width = minWidth;
-        int iterationsCount = 0; // Para medir cuántas iteraciones reales hacemos        
-        while (width <= maxWidth) {
-            String[] lines = textToLines(text, width);            
-            if (lines == null || lines.length < 2) {
-                width++;
-                continue;
-            }            
-            // Solo calcular si el layout cambió respecto al anterior
-            boolean shouldCalculate = (prevLines == null) || 
-                                     (lines.length != prevLines.length) ||
-                                     (!arraysEqual(lines, prevLines));            
-            if (shouldCalculate) {
-                iterationsCount++;                
-                // Optimización: skip si no puede mejorar
-                if (lines.length >= bestRiver) {
-                    int river = findLongestRiverOptimized(lines);                    
-                    if (river > bestRiver) {
-                        bestRiver = river;
-                        bestWidth = width;
-                    }                    
-                    // Early stopping
-                    if (river == lines.length) {
-                        break;
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(tokens);
+        if (checkpoint != null && checkpoint.hasState()) {
+            width = checkpoint.resumeWidth();
+            bestWidth = checkpoint.bestWidth();
+            bestRiver = checkpoint.bestRiver();
+        }
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
+        try {
+            while (width <= maxWidth) {
+                if (checkpoint != null) {
+                    checkpoint.reached(width, bestWidth, bestRiver);
+                }
+                if (RiverMetrics.ENABLED) {
+                    t0 = System.nanoTime();
+                }
+                tokens.layout(width, layout);
+                if (RiverMetrics.ENABLED) {
+                    long t1 = System.nanoTime();
+                    RiverMetrics.LAYOUT_NANOS.add(t1 - t0);
+                    RiverMetrics.WIDTHS_VISITED.increment();
+                    t0 = t1;
+                }
+                if (stats != null) {
+                    stats.reached(width);
+                    stats.layoutsComputed++;
+                }
+                // El número de líneas no aumenta con el ancho: si ya no
+                // alcanzan para superar el mejor río, la búsqueda terminó
+                if (ProblemaP1.searchIsOver(layout.numLines(), bestRiver)) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.BOUND_STOPS.increment();
                     }
-                }                
-                prevLines = lines;
-            }            
-            // Saltar al siguiente breakpoint
-            int nextWidth = findNextBreakpoint(text, width, lines, maxWidth);
-            width = nextWidth;
-        }        
-        // Retornar también el número de iteraciones para comparar
-        System.err.println("Iteraciones con saltos: " + iterationsCount);
+                    break;
+                }
+                if (stats != null) {
+                    stats.layoutsEvaluated++;
+                }
+                int river = engine.longestRiver(tokens, layout);
+                if (RiverMetrics.ENABLED) {
+                    RiverMetrics.DP_NANOS.add(System.nanoTime() - t0);
+                }
+                if (river > bestRiver) {
+                    bestRiver = river;
+                    bestWidth = width;
+                }
+                // Early stopping
+                if (river == layout.numLines()) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.EARLY_STOPS.increment();
+                    }
+                    break;
+                }
+                // Saltar al siguiente breakpoint
+                width = tokens.nextBreakpoint(layout);
+            }
+        } catch (RuntimeException | Error e) {
+            // La búsqueda no terminó: el checkpoint queda para retomarla
+            if (checkpoint != null) {
+                checkpoint.abandon();
+            }
+            throw e;
+        }
+        if (checkpoint != null) {
+            checkpoint.finish();
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.addAllocatedSince(allocatedBefore);
+        }
         return new int[]{bestWidth, bestRiver};
     }
 
@@ -178,6 +195,13 @@ public class GreatestTypographicRiverV3 {
      * Versión SIN optimización 3 (para comparar)
      */
     public static int[] findOptimalWidthAndRiverNoJumps(String text) {
+        return findOptimalWidthAndRiverNoJumps(text, null);
+    }
+
+    /**
+     * Versión SIN optimización 3, acumulando en stats los layouts evaluados
+     */
+    public static int[] findOptimalWidthAndRiverNoJumps(String text, SearchStats stats) {
         String[] words = text.split(" ");
         int minWidth = 0;
         for (String word : words) {
@@ -185,7 +209,7 @@ public class GreatestTypographicRiverV3 {
         }
         
         int totalLength = text.length();
-        int maxWidth = Math.min(totalLength - 1, 500);
+        int maxWidth = totalLength - 1;
         
         if (maxWidth < minWidth) {
             return new int[]{minWidth, 0};
@@ -193,31 +217,77 @@ public class GreatestTypographicRiverV3 {
         
         int bestWidth = minWidth;
         int bestRiver = 0;
-        int iterationsCount = 0;
         
         for (int width = minWidth; width <= maxWidth; width++) {
             String[] lines = textToLines(text, width);
+            if (stats != null) {
+                stats.reached(width);
+                stats.layoutsComputed++;
+            }
             
-            if (lines == null || lines.length < 2) {
+            if (lines == null) {
                 continue;
             }
             
-            if (lines.length >= bestRiver) {
-                iterationsCount++;
-                int river = findLongestRiverOptimized(lines);
-                
-                if (river > bestRiver) {
-                    bestRiver = river;
-                    bestWidth = width;
-                }
-                
-                if (river == lines.length) {
-                    break;
-                }
+            // Sin tope fijo: se termina cuando ningún ancho mayor puede ganar
+            if (ProblemaP1.searchIsOver(lines.length, bestRiver)) {
+                break;
+            }
+            
+            if (stats != null) {
+                stats.layoutsEvaluated++;
+            }
+            int river = findLongestRiverOptimized(lines);
+            
+            if (river > bestRiver) {
+                bestRiver = river;
+                bestWidth = width;
+            }
+            
+            if (river == lines.length) {
+                break;
             }
         }
         
-        System.err.println("Iteraciones sin saltos: " + iterationsCount);
+        return new int[]{bestWidth, bestRiver};
+    }
+
+    /**
+     * Versión SIN optimización 3 sobre el texto ya tokenizado: prueba
+     * todos los anchos uno por uno, con el mismo layout y motor de río
+     * que la versión con saltos, así la comparación mide solo los saltos.
+     */
+    public static int[] findOptimalWidthAndRiverNoJumps(WordTokens tokens, SearchStats stats) {
+        int minWidth = tokens.maxWordLength();
+        int maxWidth = tokens.textLength() - 1;
+        if (maxWidth < minWidth) {
+            return new int[]{minWidth, 0};
+        }
+        int bestWidth = minWidth;
+        int bestRiver = 0;
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
+        for (int width = minWidth; width <= maxWidth; width++) {
+            tokens.layout(width, layout);
+            if (stats != null) {
+                stats.reached(width);
+                stats.layoutsComputed++;
+            }
+            if (ProblemaP1.searchIsOver(layout.numLines(), bestRiver)) {
+                break;
+            }
+            if (stats != null) {
+                stats.layoutsEvaluated++;
+            }
+            int river = engine.longestRiver(tokens, layout);
+            if (river > bestRiver) {
+                bestRiver = river;
+                bestWidth = width;
+            }
+            if (river == layout.numLines()) {
+                break;
+            }
+        }
         return new int[]{bestWidth, bestRiver};
     }
 
@@ -335,26 +405,24 @@ public class GreatestTypographicRiverV3 {
             try {
                 System.out.println("\n--- " + fileName + " ---");
                 
-                java.io.BufferedReader reader = new java.io.BufferedReader(
-                    new java.io.FileReader(fileName)
-                );
-                
-                String texto = reader.readLine();
-                reader.close();
+                // Archivo mapeado en memoria y tokenizado sin crear el String
+                WordTokens tokens = MappedInput.firstLineTokens(java.nio.file.Paths.get(fileName));
                 
-                if (texto == null || texto.isEmpty()) {
+                if (tokens == null || tokens.textLength() == 0) {
                     System.out.println("Archivo vacío o no encontrado");
                     continue;
                 }
                 
                 // ========== PRUEBA SIN SALTOS ==========
+                SearchStats stats1 = new SearchStats();
                 long startTime1 = System.currentTimeMillis();
-                int[] result1 = findOptimalWidthAndRiverNoJumps(texto);
+                int[] result1 = findOptimalWidthAndRiverNoJumps(tokens, stats1);
                 long endTime1 = System.currentTimeMillis();
                 
                 // ========== PRUEBA CON SALTOS ==========
+                SearchStats stats2 = new SearchStats();
                 long startTime2 = System.currentTimeMillis();
-                int[] result2 = findOptimalWidthAndRiverWithJumps(texto);
+                int[] result2 = findOptimalWidthAndRiverWithJumps(tokens, stats2);
                 long endTime2 = System.currentTimeMillis();
                 
                 // ========== IMPRIMIR RESULTADO (formato V1/V2) ==========
@@ -362,19 +430,22 @@ public class GreatestTypographicRiverV3 {
                 double speedup = (endTime2 - startTime2) > 0 ? 
                     (double)(endTime1 - startTime1) / (endTime2 - startTime2) : 0;
                 
-                System.out.println("Longitud: " + texto.length() + " chars | " +
+                System.out.println("Longitud: " + tokens.textLength() + " chars | " +
                                 "Ancho: " + result1[0] + " | " +
                                 "Río: " + result1[1] + " | " +
                                 "Sin Opt3: " + (endTime1 - startTime1) + " ms | " +
                                 "Con Opt3: " + (endTime2 - startTime2) + " ms | " +
-                                "Speedup: " + String.format("%.2fx", speedup));
+                                "Speedup: " + String.format("%.2fx", speedup) + " | " +
+                                "Layouts: " + stats1.layoutsEvaluated + " vs " + stats2.layoutsEvaluated + " | " +
+                                "Ancho máx: " + stats1.maxWidthReached + " vs " + stats2.maxWidthReached + " | " +
+                                "Calculados: " + stats1.layoutsComputed + " vs " + stats2.layoutsComputed);
                 
                 // Verificar que ambos métodos den el mismo resultado
                 if (result1[0] != result2[0] || result1[1] != result2[1]) {
                     System.out.println("⚠️ ADVERTENCIA: Resultados diferentes!");
                 }
                 
-            } catch (java.io.FileNotFoundException e) {
+            } catch (java.nio.file.NoSuchFileException e) {
                 System.out.println("⚠️ Archivo no encontrado: " + fileName);
             } catch (Exception e) {
                 System.out.println("⚠️ Error: " + fileName);
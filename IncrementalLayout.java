@@ -0,0 +1,190 @@
+// ============================================================
+// Layout que se actualiza de forma incremental al crecer el
+// ancho, junto con la DP del río.
+//
+// Al pasar de un ancho w a uno mayor:
+// 1. Las líneas cuyo "absorb" (lineLength + 1 + longitud de la
+//    palabra que la rompió) sigue siendo mayor que el nuevo ancho
+//    no cambian. Si ninguna cambia, el layout es el mismo.
+// 2. Se reacomodan las palabras desde la primera línea que cambia
+//    hasta que una línea nueva empieza en la misma palabra que una
+//    línea vieja j y todas las líneas desde j siguen estables: esa
+//    cola se conserva tal cual (solo se desplaza de índice).
+// 3. La DP va de abajo hacia arriba, así que los valores de la cola
+//    conservada siguen siendo válidos. Se guardan por palabra
+//    (gapRiver[k] = río que empieza en el espacio anterior a la
+//    palabra k), lo que los hace independientes del índice de fila,
+//    y solo se recalculan las filas por encima de la cola.
+//
+// La DP es perezosa: si un ancho se poda sin calcular el río, las
+// filas quedan marcadas como pendientes (dpValidFrom) y se calculan
+// en el siguiente longestRiver().
+// ============================================================
+public final class IncrementalLayout {
+
+    private final WordTokens tokens;
+    private final LineLayout layout = new LineLayout();
+    private final RiverEngine engine = new RiverEngine();
+    // absorb[i]: menor ancho en que la línea i absorbe otra palabra
+    private int[] absorb;
+    // suffixMinAbsorb[i] = min(absorb[i..numLines-1])
+    private int[] suffixMinAbsorb;
+    // suffixBest[i] = río más largo que empieza en una fila >= i
+    private int[] suffixBest;
+    private final int[] gapRiver;
+    // Las filas >= dpValidFrom tienen la DP al día
+    private int dpValidFrom;
+    // Filas de la DP calculadas en total (para medir el ahorro)
+    private long rowsComputed;
+
+    // ============================================================
+    // Construye el layout completo para el ancho inicial, que debe
+    // ser válido (>= palabra más larga).
+    // ============================================================
+    public IncrementalLayout(WordTokens tokens, int anchoInicial) {
+        if (!tokens.layout(anchoInicial, layout)) {
+            throw new IllegalArgumentException(
+                    "Ancho inicial menor que la palabra más larga: " + anchoInicial);
+        }
+        this.tokens = tokens;
+        // El número de líneas no crece con el ancho: este es el máximo
+        int capacidad = Math.max(1, layout.numLines);
+        absorb = new int[capacidad];
+        suffixMinAbsorb = new int[capacidad];
+        suffixBest = new int[capacidad];
+        gapRiver = new int[Math.max(1, tokens.numWords)];
+        for (int i = 0; i < layout.numLines; i++) {
+            absorb[i] = absorbOf(i);
+        }
+        recomputeSuffixMin(layout.numLines - 1);
+        dpValidFrom = layout.numLines;
+    }
+
+    public LineLayout layout() {
+        return layout;
+    }
+
+    public int width() {
+        return layout.width;
+    }
+
+    public int numLines() {
+        return layout.numLines;
+    }
+
+    public long rowsComputed() {
+        return rowsComputed;
+    }
+
+    // Menor ancho en que el layout cambia (= WordTokens.nextBreakpoint)
+    public int nextBreakpoint() {
+        return layout.numLines == 0 ? Integer.MAX_VALUE : suffixMinAbsorb[0];
+    }
+
+    // ============================================================
+    // Actualiza el layout a un ancho mayor o igual al actual.
+    // Retorna false si el layout no cambió (mismo río).
+    // ============================================================
+    public boolean advance(int nuevoAncho) {
+        if (nuevoAncho < layout.width) {
+            throw new IllegalArgumentException(
+                    "El ancho solo puede crecer: " + layout.width + " -> " + nuevoAncho);
+        }
+        int n = layout.numLines;
+        if (n == 0 || suffixMinAbsorb[0] > nuevoAncho) {
+            layout.width = nuevoAncho;
+            return false;
+        }
+        // Primera línea que cambia; las anteriores quedan igual
+        int first = 0;
+        while (absorb[first] > nuevoAncho) {
+            first++;
+        }
+        // Reacomodar desde 'first'. Las filas nuevas se escriben sobre
+        // las viejas: la fila nueva r siempre empieza en o después de la
+        // vieja r, así que las filas viejas que faltan por comparar
+        // (j >= r) todavía no se han sobrescrito.
+        int[] wordLength = tokens.wordLength;
+        int numWords = tokens.numWords;
+        int r = first;
+        int j = first;
+        int tail = -1;
+        int start = layout.lineStart[first];
+        while (true) {
+            start = tokens.skipEmpty(start);
+            if (start >= numWords) {
+                break;
+            }
+            if (r > first) {
+                while (j < n && layout.lineStart[j] < start) {
+                    j++;
+                }
+                if (j < n && layout.lineStart[j] == start && suffixMinAbsorb[j] > nuevoAncho) {
+                    tail = j;
+                    break;
+                }
+            }
+            // Greedy de una línea (mismas reglas que WordTokens.layout)
+            int end = tokens.lineEnd(start, nuevoAncho);
+            int length = tokens.wordPrefix[end] - tokens.wordPrefix[start] - 1;
+            layout.set(r, start, end, length);
+            absorb[r] = end < numWords ? length + 1 + wordLength[end] : Integer.MAX_VALUE;
+            r++;
+            start = end;
+        }
+        int newN;
+        if (tail >= 0) {
+            // Conservar la cola [tail, n) desplazándola a partir de r
+            int count = n - tail;
+            System.arraycopy(layout.lineStart, tail, layout.lineStart, r, count);
+            System.arraycopy(layout.lineEnd, tail, layout.lineEnd, r, count);
+            System.arraycopy(layout.lineLength, tail, layout.lineLength, r, count);
+            System.arraycopy(absorb, tail, absorb, r, count);
+            System.arraycopy(suffixMinAbsorb, tail, suffixMinAbsorb, r, count);
+            System.arraycopy(suffixBest, tail, suffixBest, r, count);
+            newN = r + count;
+            // Las filas de la cola que ya tenían DP válida la conservan
+            dpValidFrom = dpValidFrom <= tail ? r : dpValidFrom - (tail - r);
+        } else {
+            newN = r;
+            dpValidFrom = newN;
+        }
+        layout.numLines = newN;
+        layout.width = nuevoAncho;
+        recomputeSuffixMin(r - 1);
+        return true;
+    }
+
+    // ============================================================
+    // Río más largo del layout actual. Solo calcula las filas cuya
+    // DP está pendiente.
+    // ============================================================
+    public int longestRiver() {
+        if (layout.numLines == 0) {
+            return 0;
+        }
+        if (dpValidFrom > 0) {
+            rowsComputed += dpValidFrom;
+            engine.longestRiverAbove(tokens, layout, dpValidFrom, gapRiver, suffixBest);
+            dpValidFrom = 0;
+        }
+        return suffixBest[0];
+    }
+
+    private int absorbOf(int i) {
+        int end = layout.lineEnd[i];
+        return end < tokens.numWords
+                ? layout.lineLength[i] + 1 + tokens.wordLength[end]
+                : Integer.MAX_VALUE;
+    }
+
+    // Recalcula suffixMinAbsorb desde la fila 'from' hacia arriba
+    private void recomputeSuffixMin(int from) {
+        int n = layout.numLines;
+        for (int i = from; i >= 0; i--) {
+            suffixMinAbsorb[i] = i + 1 < n
+                    ? Math.min(absorb[i], suffixMinAbsorb[i + 1])
+                    : absorb[i];
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+// ============================================================
+// Generador reproducible (con semilla) de entradas en el formato
+// multi-caso de ProblemaP1:
+//
+//   t
+//   texto_1
+//   ...
+//
+// Formas disponibles (--shape):
+//   uniform      longitudes de palabra uniformes en [min, max]
+//   geometric    longitudes con distribución geométrica (media --mean),
+//                parecida a texto natural
+//   equal        todas las palabras de longitud --max (peor caso: el
+//                early stopping casi nunca se dispara)
+//   giant        palabras cortas más una palabra gigante de --giant
+//                caracteres en la mitad (ancho mínimo enorme)
+//   alternating  alterna palabras de longitud --min y --max
+//
+// Uso:
+//   java InputGenerator --chars N [--cases T] [--shape s] [--seed S]
+//                       [--min a] [--max b] [--mean m] [--giant g]
+//                       [--out archivo]
+// N puede llegar a 10.000.000; cada caso tiene exactamente N
+// caracteres (la última palabra se recorta si hace falta).
+// ============================================================
+public final class InputGenerator {
+
+    public static final int MAX_CHARS = 10_000_000;
+
+    private InputGenerator() {
+    }
+
+    // Parámetros de generación
+    public static final class Spec {
+        public String shape = "uniform";
+        public int chars = 1000;
+        public long seed = 42;
+        public int minWord = 1;
+        public int maxWord = 10;
+        public double meanWord = 5.0;
+        public int giantWord = 1000;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Spec spec = new Spec();
+        int cases = 1;
+        String out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--chars": spec.chars = Integer.parseInt(args[++i]); break;
+                case "--cases": cases = Integer.parseInt(args[++i]); break;
+                case "--shape": spec.shape = args[++i]; break;
+                case "--seed": spec.seed = Long.parseLong(args[++i]); break;
+                case "--min": spec.minWord = Integer.parseInt(args[++i]); break;
+                case "--max": spec.maxWord = Integer.parseInt(args[++i]); break;
+                case "--mean": spec.meanWord = Double.parseDouble(args[++i]); break;
+                case "--giant": spec.giantWord = Integer.parseInt(args[++i]); break;
+                case "--out": out = args[++i]; break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        Writer writer = new BufferedWriter(out == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8), 1 << 16);
+        writer.write(Integer.toString(cases));
+        writer.write('\n');
+        long seed = spec.seed;
+        for (int c = 0; c < cases; c++) {
+            // Cada caso con su propia semilla derivada: reproducible
+            spec.seed = seed + c;
+            writer.write(generate(spec));
+            writer.write('\n');
+        }
+        writer.flush();
+        if (out != null) {
+            writer.close();
+        }
+    }
+
+    // ============================================================
+    // Genera un texto de exactamente spec.chars caracteres:
+    // palabras en minúsculas separadas por un espacio, sin espacios
+    // al inicio ni al final.
+    // ============================================================
+    public static String generate(Spec spec) {
+        if (spec.chars < 1 || spec.chars > MAX_CHARS) {
+            throw new IllegalArgumentException("chars debe estar entre 1 y " + MAX_CHARS);
+        }
+        if (spec.minWord < 1 || spec.maxWord < spec.minWord) {
+            throw new IllegalArgumentException("Se requiere 1 <= min <= max");
+        }
+        Random random = new Random(spec.seed);
+        StringBuilder sb = new StringBuilder(spec.chars);
+        int giantAt = spec.chars / 2;
+        boolean giantDone = !spec.shape.equals("giant");
+        int index = 0;
+        while (sb.length() < spec.chars) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            int length;
+            if (!giantDone && sb.length() >= giantAt) {
+                length = spec.giantWord;
+                giantDone = true;
+            } else {
+                length = wordLength(spec, random, index);
+            }
+            for (int i = 0; i < length; i++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            index++;
+        }
+        sb.setLength(spec.chars);
+        // No terminar en espacio (main hace trim y cambiaría el tamaño)
+        if (sb.charAt(sb.length() - 1) == ' ') {
+            sb.setCharAt(sb.length() - 1, 'a');
+        }
+        return sb.toString();
+    }
+
+    private static int wordLength(Spec spec, Random random, int index) {
+        switch (spec.shape) {
+            case "uniform":
+            case "giant":
+                return spec.minWord + random.nextInt(spec.maxWord - spec.minWord + 1);
+            case "geometric": {
+                // Geométrica con media meanWord, acotada a [min, max]
+                double p = 1.0 / Math.max(1.0, spec.meanWord);
+                int length = 1;
+                while (length < spec.maxWord && random.nextDouble() >= p) {
+                    length++;
+                }
+                return Math.max(spec.minWord, length);
+            }
+            case "equal":
+                return spec.maxWord;
+            case "alternating":
+                return index % 2 == 0 ? spec.minWord : spec.maxWord;
+            default:
+                throw new IllegalArgumentException("Forma desconocida: " + spec.shape);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// ============================================================
+// Representación compacta de un layout (partición en líneas)
+// para un ancho dado, sin construir ningún String.
+//
+// Cada línea i se describe con:
+// - lineStart[i]  = índice de la primera palabra de la línea
+// - lineEnd[i]    = índice (exclusivo) donde se rompe la línea
+// - lineLength[i] = número de caracteres de la línea
+//
+// Los arreglos se reutilizan entre anchos: solo crecen cuando
+// aparece un layout con más líneas que los anteriores.
+// ============================================================
+public final class LineLayout {
+
+    // Ancho con el que se construyó el layout
+    int width;
+    // Número de líneas válidas en los arreglos
+    int numLines;
+    int[] lineStart;
+    int[] lineEnd;
+    int[] lineLength;
+
+    public LineLayout() {
+        this(16);
+    }
+
+    public LineLayout(int capacidadInicial) {
+        int capacidad = Math.max(1, capacidadInicial);
+        lineStart = new int[capacidad];
+        lineEnd = new int[capacidad];
+        lineLength = new int[capacidad];
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public int numLines() {
+        return numLines;
+    }
+
+    public int lineStart(int i) {
+        return lineStart[i];
+    }
+
+    public int lineEnd(int i) {
+        return lineEnd[i];
+    }
+
+    public int lineLength(int i) {
+        return lineLength[i];
+    }
+
+    // Reinicia el layout para un nuevo ancho sin liberar memoria
+    void reset(int anchoLinea) {
+        width = anchoLinea;
+        numLines = 0;
+    }
+
+    // Agrega una línea al final, creciendo los arreglos si hace falta
+    void add(int start, int end, int length) {
+        if (numLines == lineStart.length) {
+            int nuevaCapacidad = lineStart.length * 2;
+            lineStart = java.util.Arrays.copyOf(lineStart, nuevaCapacidad);
+            lineEnd = java.util.Arrays.copyOf(lineEnd, nuevaCapacidad);
+            lineLength = java.util.Arrays.copyOf(lineLength, nuevaCapacidad);
+        }
+        lineStart[numLines] = start;
+        lineEnd[numLines] = end;
+        lineLength[numLines] = length;
+        numLines++;
+    }
+
+    // Sobrescribe la línea i (i < capacidad actual)
+    void set(int i, int start, int end, int length) {
+        lineStart[i] = start;
+        lineEnd[i] = end;
+        lineLength[i] = length;
+    }
+}
@@ -0,0 +1,87 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// ============================================================
+// Lectura de un archivo de corpus sin crear el String del texto.
+//
+// El archivo se mapea en memoria (FileChannel.map) y la primera
+// línea se tokeniza directamente desde el buffer mapeado a los
+// arreglos de WordTokens: no hay copia bytes -> char[] -> String
+// -> split. Para archivos de varios MB, en lotes de miles de
+// documentos, esto evita varias copias completas por archivo.
+//
+// Misma semántica que
+//   new BufferedReader(new FileReader(archivo)).readLine()
+// con el charset dado (el de FileReader es el por defecto): la
+// línea termina en "\n", "\r" o "\r\n", y las columnas son las
+// del String que se habría leído. Con un charset que no sea
+// UTF-8, ISO-8859-1 ni US-ASCII, o con UTF-8 mal formado, se cae
+// a la lectura con BufferedReader (resultado idéntico, sin la
+// ganancia de memoria).
+// ============================================================
+public final class MappedInput {
+
+    private MappedInput() {
+    }
+
+    // Primera línea del archivo con el charset por defecto
+    public static WordTokens firstLineTokens(Path file) throws IOException {
+        return firstLineTokens(file, Charset.defaultCharset());
+    }
+
+    // ============================================================
+    // Tokens de la primera línea del archivo, o null si el archivo
+    // está vacío (donde readLine() retorna null).
+    // ============================================================
+    public static WordTokens firstLineTokens(Path file, Charset charset) throws IOException {
+        boolean utf8 = charset.equals(StandardCharsets.UTF_8);
+        boolean singleByte = charset.equals(StandardCharsets.ISO_8859_1)
+                || charset.equals(StandardCharsets.US_ASCII);
+        if (!utf8 && !singleByte) {
+            return readerFallback(file, charset);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return null;
+            }
+            // Un texto no puede pasar de Integer.MAX_VALUE columnas
+            int mapped = (int) Math.min(size, Integer.MAX_VALUE);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, mapped);
+            int end = 0;
+            while (end < mapped) {
+                byte b = buf.get(end);
+                if (b == '\n' || b == '\r') {
+                    break;
+                }
+                end++;
+            }
+            if (singleByte) {
+                // Un byte = un carácter (en US-ASCII un byte no ASCII
+                // se decodifica como un único U+FFFD)
+                return WordTokens.tokenize(buf, 0, end, false, end);
+            }
+            int chars = CompactText.utf8Length(buf, 0, end);
+            if (chars < 0) {
+                return readerFallback(file, charset);
+            }
+            return WordTokens.tokenize(buf, 0, end, true, chars);
+        }
+    }
+
+    private static WordTokens readerFallback(Path file, Charset charset) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), charset))) {
+            String texto = reader.readLine();
+            return texto == null ? null : WordTokens.tokenize(texto);
+        }
+    }
+}
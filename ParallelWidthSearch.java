@@ -0,0 +1,214 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// Búsqueda del ancho óptimo repartida entre varios hilos.
+//
+// Cada hilo toma bloques consecutivos de anchos (de menor a
+// mayor) de un contador atómico, así los anchos pequeños, que
+// son los más costosos y los que más podan, se procesan primero.
+//
+// Estado compartido:
+// - best: mejor (río, ancho) codificado en un long para
+//   actualizarlo con una sola operación atómica. Mayor río gana;
+//   en empate gana el ancho más pequeño (igual que la versión
+//   secuencial, que solo actualiza con river > bestRiver).
+// - stopWidth: último ancho que vale la pena mirar. Baja cuando
+//   el río ocupa todas las líneas o cuando un layout ya no tiene
+//   líneas suficientes para superar a best. Ningún ancho mayor
+//   puede ganar (el número de líneas no crece con el ancho), así
+//   que los hilos no pasan de ahí; no hay tope fijo de ancho.
+//
+// Retorna exactamente el mismo {ancho, río} que
+// ProblemaP1.findOptimalWidthAndRiver.
+// ============================================================
+public final class ParallelWidthSearch {
+
+    // Anchos que toma un hilo en cada bloque
+    private static final int CHUNK = 8;
+
+    // Pool compartido por todas las búsquedas (ver sharedPool)
+    private static volatile ExecutorService shared;
+
+    private ParallelWidthSearch() {
+    }
+
+    public static int[] findOptimalWidthAndRiver(String text, int threads) {
+        return findOptimalWidthAndRiver(WordTokens.tokenize(text), threads);
+    }
+
+    // ============================================================
+    // Usa el pool compartido, con una tarea por núcleo. Es la
+    // variante del registro (parallel, adaptive): con varias
+    // búsquedas a la vez (RiverService, BatchRunner con hilos) el
+    // total de hilos sigue siendo el número de núcleos, en vez de
+    // un pool nuevo por búsqueda.
+    // ============================================================
+    public static int[] findOptimalWidthAndRiver(WordTokens tokens) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        if (workers <= 1) {
+            return ProblemaP1.findOptimalWidthAndRiver(tokens, RiverBound.DEFAULTS, null);
+        }
+        return findOptimalWidthAndRiver(tokens, sharedPool(), workers);
+    }
+
+    // Pool de hilos daemon, uno por núcleo, creado al primer uso
+    static ExecutorService sharedPool() {
+        ExecutorService pool = shared;
+        if (pool == null) {
+            synchronized (ParallelWidthSearch.class) {
+                pool = shared;
+                if (pool == null) {
+                    pool = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+                        Thread t = new Thread(r, "river-parallel");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    // ============================================================
+    // Crea un pool de 'threads' hilos solo para esta búsqueda.
+    // ============================================================
+    public static int[] findOptimalWidthAndRiver(WordTokens tokens, int threads) {
+        if (threads <= 1) {
+            return ProblemaP1.findOptimalWidthAndRiver(tokens, RiverBound.DEFAULTS, null);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            return findOptimalWidthAndRiver(tokens, pool, threads);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ============================================================
+    // Usa un pool existente con 'workers' tareas en paralelo.
+    // ============================================================
+    public static int[] findOptimalWidthAndRiver(WordTokens tokens,
+                                                 ExecutorService pool, int workers) {
+        int minWidth = tokens.maxWordLength;
+        int maxWidth = tokens.textLength - 1;
+        if (maxWidth < minWidth) {
+            return new int[]{minWidth, 0};
+        }
+        AtomicInteger nextWidth = new AtomicInteger(minWidth);
+        AtomicInteger stopWidth = new AtomicInteger(maxWidth);
+        AtomicLong best = new AtomicLong(encode(0, minWidth));
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.SEARCHES.increment();
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int t = 0; t < workers; t++) {
+            tasks.add(() -> {
+                sweep(tokens, nextWidth, stopWidth, best);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Búsqueda paralela interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la búsqueda paralela", e.getCause());
+        }
+        long result = best.get();
+        return new int[]{decodeWidth(result), decodeRiver(result)};
+    }
+
+    // Trabajo de un hilo: mismas podas que el barrido secuencial.
+    // Las métricas (ver RiverMetrics) se suman por hilo; los bytes
+    // asignados se miden en cada hilo trabajador.
+    private static void sweep(WordTokens tokens, AtomicInteger nextWidth,
+                              AtomicInteger stopWidth, AtomicLong best) {
+        long allocatedBefore = RiverMetrics.ENABLED ? RiverMetrics.threadAllocatedBytes() : 0;
+        try {
+            sweepChunks(tokens, nextWidth, stopWidth, best);
+        } finally {
+            if (RiverMetrics.ENABLED) {
+                RiverMetrics.addAllocatedSince(allocatedBefore);
+            }
+        }
+    }
+
+    private static void sweepChunks(WordTokens tokens, AtomicInteger nextWidth,
+                                    AtomicInteger stopWidth, AtomicLong best) {
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
+        long t0 = 0;
+        while (true) {
+            int from = nextWidth.getAndAdd(CHUNK);
+            if (from > stopWidth.get()) {
+                return;
+            }
+            int to = from + CHUNK - 1;
+            for (int width = from; width <= to && width <= stopWidth.get(); width++) {
+                if (RiverMetrics.ENABLED) {
+                    t0 = System.nanoTime();
+                }
+                tokens.layout(width, layout);
+                if (RiverMetrics.ENABLED) {
+                    long t1 = System.nanoTime();
+                    RiverMetrics.LAYOUT_NANOS.add(t1 - t0);
+                    RiverMetrics.WIDTHS_VISITED.increment();
+                    t0 = t1;
+                }
+                // Fin demostrable (ver ProblemaP1.searchIsOver): el número
+                // de líneas no crece con el ancho. Si ni con un río que
+                // ocupe todas las líneas este ancho supera al mejor
+                // actual (a igual río gana el ancho menor), ningún ancho
+                // mayor puede hacerlo.
+                if (layout.numLines < 2 || encode(layout.numLines, width) < best.get()) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.BOUND_STOPS.increment();
+                    }
+                    stopWidth.accumulateAndGet(width - 1, Math::min);
+                    return;
+                }
+                int river = engine.longestRiver(tokens, layout);
+                if (RiverMetrics.ENABLED) {
+                    RiverMetrics.DP_NANOS.add(System.nanoTime() - t0);
+                }
+                best.accumulateAndGet(encode(river, width), Math::max);
+                // Early stopping compartido
+                if (river == layout.numLines) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.EARLY_STOPS.increment();
+                    }
+                    stopWidth.accumulateAndGet(width, Math::min);
+                    return;
+                }
+            }
+        }
+    }
+
+    // Río en los 32 bits altos; ancho invertido en los bajos para
+    // que, a igual río, el ancho menor produzca el long mayor.
+    // RiverCluster usa la misma codificación entre procesos.
+    static long encode(int river, int width) {
+        return ((long) river << 32) | (Integer.MAX_VALUE - width);
+    }
+
+    static int decodeRiver(long key) {
+        return (int) (key >>> 32);
+    }
+
+    static int decodeWidth(long key) {
+        return Integer.MAX_VALUE - (int) key;
+    }
+}
@@ -1,5 +1,3 @@
-import java.util.Scanner;
-
 public class ProblemaP1 {
 
     // ============================================================
@@ -120,29 +118,94 @@ public class ProblemaP1 {
         return maxRiver;
     }
 
+    // ============================================================
+    // Misma Programación Dinámica que la versión sobre String[],
+    // pero consumiendo directamente el layout en índices
+    // (WordTokens + LineLayout), sin construir las líneas.
+    //
+    // Delega en RiverEngine, que solo visita los espacios
+    // interiores y usa dos filas rodantes de tamaño O(ancho).
+    // Para barridos de muchos anchos conviene reutilizar una
+    // misma instancia de RiverEngine.
+    // ============================================================
+    public static int findLongestRiverOptimized(WordTokens tokens, LineLayout layout) {
+        // Caso base: layout vacío
+        if (layout == null || layout.numLines == 0) {
+            return 0;
+        }
+        return new RiverEngine().longestRiver(tokens, layout);
+    }
+
     // ============================================================
     // Busca el ancho óptimo que maximiza el río más largo.
     //
     // Explora todos los anchos posibles desde:
     // - minWidth = palabra más larga
-    // - maxWidth = min(longitud total - 1, 500)
+    // - maxWidth = longitud total - 1 (con más, todo cabe en una línea)
     //
     // Aplica optimizaciones:
     // 1. Saltar configuraciones imposibles
     // 2. Saltar si no puede mejorar el mejor resultado
     // 3. Early stopping si se alcanza el máximo teórico
+    // 4. Terminar en cuanto ningún ancho mayor puede ganar (ver
+    //    searchIsOver), sin tope fijo de ancho
     // ============================================================
     public static int[] findOptimalWidthAndRiver(String text) {
+        return findOptimalWidthAndRiver(WordTokens.tokenize(text));
+    }
+
+    // ============================================================
+    // Igual que findOptimalWidthAndRiver(String) pero sobre el
+    // texto ya tokenizado. Cada ancho reutiliza el mismo
+    // LineLayout, así que el barrido no crea ningún String.
+    //
+    // El resultado pasa por la caché compartida (ResultCache): un
+    // texto repetido no vuelve a barrer los anchos.
+    // ============================================================
+    public static int[] findOptimalWidthAndRiver(WordTokens tokens) {
+        return ResultCache.shared().computeIfAbsent(tokens,
+                t -> findOptimalWidthAndRiver(t, RiverBound.DEFAULTS, null));
+    }
+
+    // ============================================================
+    // Además del {ancho, río}, el layout ganador y la columna del
+    // río en cada fila (ver RiverPath), para mostrarlo con
+    // RiverRenderer. El barrido es el mismo (y pasa por la caché);
+    // el costo extra es un layout y una DP con predecesores sobre
+    // el ancho ganador.
+    // ============================================================
+    public static RiverPath findOptimalRiverPath(String text) {
+        return findOptimalRiverPath(WordTokens.tokenize(text));
+    }
+
+    public static RiverPath findOptimalRiverPath(WordTokens tokens) {
+        int width = findOptimalWidthAndRiver(tokens)[0];
+        LineLayout layout = new LineLayout();
+        tokens.layout(width, layout);
+        return new RiverEngine().longestRiverPath(tokens, layout);
+    }
+
+    // ============================================================
+    // Barrido con una lista de cotas superiores (ver RiverBound).
+    // Antes de la DP se evalúan las cotas en orden; si alguna es
+    // menor que el mejor río encontrado, el ancho se poda y se
+    // cuenta en stats.prunedByBound (stats puede ser null).
+    //
+    // Con {RiverBound.LINE_COUNT} es exactamente el barrido
+    // original; cualquier cota válida da el mismo resultado.
+    // ============================================================
+    public static int[] findOptimalWidthAndRiver(WordTokens tokens, RiverBound[] bounds,
+                                                 SearchStats stats) {
+        if (stats != null) {
+            stats.useBounds(bounds);
+        }
         // Calcular ancho mínimo posible (la palabra más larga)
-        String[] words = text.split(" ");
-        int minWidth = 0;
-        for (String word : words) {
-            minWidth = Math.max(minWidth, word.length());
-        }
-        // Definir ancho máximo razonable
-        // Se limita a 500 para evitar explorar anchos excesivamente grandes
-        int totalLength = text.length();
-        int maxWidth = Math.min(totalLength - 1, 5000);
+        int minWidth = tokens.maxWordLength;
+        // Ancho máximo: con ancho >= longitud total todo el texto cabe
+        // en una línea. En la práctica el barrido termina mucho antes
+        // (ver searchIsOver).
+        int totalLength = tokens.textLength;
+        int maxWidth = totalLength - 1;
         // Si el ancho máximo es menor que el mínimo posible,
         // no existe configuración válida
         if (maxWidth < minWidth) {
@@ -152,50 +215,256 @@ public class ProblemaP1 {
         int bestWidth = minWidth;
         // Longitud máxima de río encontrada hasta el momento
         int bestRiver = 0;
+        // Métricas (ver RiverMetrics): con ENABLED = false estos
+        // bloques desaparecen al compilar el JIT
+        long allocatedBefore = 0;
+        long t0 = 0;
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.SEARCHES.increment();
+            allocatedBefore = RiverMetrics.threadAllocatedBytes();
+        }
+        // Retomar una búsqueda interrumpida (ver SearchCheckpoint)
+        int firstWidth = minWidth;
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(tokens);
+        if (checkpoint != null && checkpoint.hasState()) {
+            firstWidth = checkpoint.resumeWidth();
+            bestWidth = checkpoint.bestWidth();
+            bestRiver = checkpoint.bestRiver();
+        }
+        // Layout y motor de río reutilizados en todos los anchos
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
         // Probar todos los anchos posibles
-        for (int width = minWidth; width <= maxWidth; width++) {
-            String[] lines = textToLines(text, width);
-            // Si la partición no es válida o hay menos de 2 líneas,
-            // no puede existir río
-            if (lines == null || lines.length < 2) {
-                continue;
+        try {
+            for (int width = firstWidth; width <= maxWidth; width++) {
+                if (checkpoint != null) {
+                    checkpoint.reached(width, bestWidth, bestRiver);
+                }
+                if (RiverMetrics.ENABLED) {
+                    t0 = System.nanoTime();
+                }
+                // Con width >= minWidth toda palabra cabe: el layout es válido
+                tokens.layout(width, layout);
+                if (RiverMetrics.ENABLED) {
+                    long t1 = System.nanoTime();
+                    RiverMetrics.LAYOUT_NANOS.add(t1 - t0);
+                    RiverMetrics.WIDTHS_VISITED.increment();
+                    t0 = t1;
+                }
+                if (stats != null) {
+                    stats.reached(width);
+                }
+                if (searchIsOver(layout.numLines, bestRiver)) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.BOUND_STOPS.increment();
+                    }
+                    break;
+                }
+                if (stats != null) {
+                    stats.layoutsEvaluated++;
+                }
+                // Optimización importante:
+                // Un río no puede ser más largo que una cota superior
+                // (la más simple: el número total de líneas, porque cada
+                // línea solo puede aportar 1 unidad de longitud).
+                // Si la cota es menor que el mejor río ya encontrado,
+                // esta configuración jamás podrá superarlo.
+                boolean skip = pruned(tokens, layout, bounds, bestRiver, stats);
+                if (RiverMetrics.ENABLED) {
+                    long t1 = System.nanoTime();
+                    RiverMetrics.PRUNE_NANOS.add(t1 - t0);
+                    t0 = t1;
+                    if (skip) {
+                        RiverMetrics.WIDTHS_PRUNED.increment();
+                    }
+                }
+                if (skip) {
+                    continue;
+                }
+                int river = engine.longestRiver(tokens, layout);
+                if (RiverMetrics.ENABLED) {
+                    RiverMetrics.DP_NANOS.add(System.nanoTime() - t0);
+                }
+                // Actualizar mejor solución encontrada
+                if (river > bestRiver) {
+                    bestRiver = river;
+                    bestWidth = width;
+                }
+                // Early stopping:
+                // Si el río ocupa todas las líneas disponibles,
+                // se alcanzó el máximo teórico posible
+                if (river == layout.numLines) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.EARLY_STOPS.increment();
+                    }
+                    break;
+                }
             }
-            // Optimización importante:
-            // Un río no puede ser más largo que el número total de líneas,
-            // porque cada línea solo puede aportar 1 unidad de longitud.
-            // Si el número de líneas es menor que el mejor río ya encontrado,
-            // esta configuración jamás podrá superarlo.
-            if (lines.length < bestRiver) {
-                continue;
+        } catch (RuntimeException | Error e) {
+            // La búsqueda no terminó: el checkpoint queda para retomarla
+            if (checkpoint != null) {
+                checkpoint.abandon();
             }
-            int river = findLongestRiverOptimized(lines);
-            // Actualizar mejor solución encontrada
-            if (river > bestRiver) {
-                bestRiver = river;
-                bestWidth = width;
+            throw e;
+        }
+        if (checkpoint != null) {
+            checkpoint.finish();
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.addAllocatedSince(allocatedBefore);
+        }
+        return new int[]{bestWidth, bestRiver};
+    }
+
+    // ============================================================
+    // Fin demostrable del barrido. El número de líneas no crece al
+    // aumentar el ancho, y el río nunca supera el número de líneas.
+    // Por eso, si el layout actual tiene menos de 2 líneas o no más
+    // líneas que el mejor río encontrado, ningún ancho mayor (ni
+    // este) puede mejorarlo estrictamente.
+    // ============================================================
+    static boolean searchIsOver(int numLines, int bestRiver) {
+        return numLines < 2 || numLines <= bestRiver;
+    }
+
+    // Evalúa las cotas en orden; true si alguna poda el ancho
+    static boolean pruned(WordTokens tokens, LineLayout layout, RiverBound[] bounds,
+                          int bestRiver, SearchStats stats) {
+        // Sin incumbente (bestRiver = 0) ninguna cota puede podar
+        if (bestRiver == 0) {
+            return false;
+        }
+        for (int b = 0; b < bounds.length; b++) {
+            if (bounds[b].upperBound(tokens, layout) < bestRiver) {
+                if (stats != null) {
+                    stats.prunedByBound[b]++;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ============================================================
+    // Modo incremental del barrido: al pasar de un ancho al
+    // siguiente solo se reacomodan las líneas que cambian y solo
+    // se recalcula la DP de las filas por encima de la cola que
+    // quedó igual (ver IncrementalLayout).
+    //
+    // Si el layout no cambió respecto al ancho anterior, el río es
+    // el mismo y no puede mejorar estrictamente: se salta.
+    // Retorna el mismo {ancho, río} que findOptimalWidthAndRiver y,
+    // como él, guarda y retoma checkpoints (ver SearchCheckpoint).
+    // ============================================================
+    public static int[] findOptimalWidthAndRiverIncremental(String text) {
+        return findOptimalWidthAndRiverIncremental(WordTokens.tokenize(text), null);
+    }
+
+    public static int[] findOptimalWidthAndRiverIncremental(WordTokens tokens, SearchStats stats) {
+        int minWidth = tokens.maxWordLength;
+        int maxWidth = tokens.textLength - 1;
+        if (maxWidth < minWidth) {
+            return new int[]{minWidth, 0};
+        }
+        int bestWidth = minWidth;
+        int bestRiver = 0;
+        // Retomar una búsqueda interrumpida (ver SearchCheckpoint)
+        int firstWidth = minWidth;
+        SearchCheckpoint checkpoint = SearchCheckpoint.open(tokens);
+        if (checkpoint != null && checkpoint.hasState()) {
+            firstWidth = checkpoint.resumeWidth();
+            bestWidth = checkpoint.bestWidth();
+            bestRiver = checkpoint.bestRiver();
+        }
+        // Métricas como en findOptimalWidthAndRiver; el layout inicial
+        // y cada advance cuentan como fase de layout
+        long allocatedBefore = 0;
+        long t0 = 0;
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.SEARCHES.increment();
+            allocatedBefore = RiverMetrics.threadAllocatedBytes();
+            t0 = System.nanoTime();
+        }
+        IncrementalLayout layout = new IncrementalLayout(tokens, firstWidth);
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.LAYOUT_NANOS.add(System.nanoTime() - t0);
+        }
+        try {
+            for (int width = firstWidth; width <= maxWidth; width++) {
+                if (checkpoint != null) {
+                    checkpoint.reached(width, bestWidth, bestRiver);
+                }
+                if (stats != null) {
+                    stats.reached(width);
+                }
+                if (RiverMetrics.ENABLED) {
+                    t0 = System.nanoTime();
+                }
+                boolean changed = width == firstWidth || layout.advance(width);
+                if (RiverMetrics.ENABLED) {
+                    long t1 = System.nanoTime();
+                    RiverMetrics.LAYOUT_NANOS.add(t1 - t0);
+                    RiverMetrics.WIDTHS_VISITED.increment();
+                    t0 = t1;
+                }
+                // Mismo layout que el ancho anterior: nada nuevo que evaluar
+                if (!changed) {
+                    continue;
+                }
+                int numLines = layout.numLines();
+                if (searchIsOver(numLines, bestRiver)) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.BOUND_STOPS.increment();
+                    }
+                    break;
+                }
+                if (stats != null) {
+                    stats.layoutsEvaluated++;
+                }
+                int river = layout.longestRiver();
+                if (RiverMetrics.ENABLED) {
+                    RiverMetrics.DP_NANOS.add(System.nanoTime() - t0);
+                }
+                if (river > bestRiver) {
+                    bestRiver = river;
+                    bestWidth = width;
+                }
+                if (river == numLines) {
+                    if (RiverMetrics.ENABLED) {
+                        RiverMetrics.EARLY_STOPS.increment();
+                    }
+                    break;
+                }
             }
-            // Early stopping:
-            // Si el río ocupa todas las líneas disponibles,
-            // se alcanzó el máximo teórico posible
-            if (river == lines.length) {
-                break;
+        } catch (RuntimeException | Error e) {
+            // La búsqueda no terminó: el checkpoint queda para retomarla
+            if (checkpoint != null) {
+                checkpoint.abandon();
             }
+            throw e;
+        }
+        if (checkpoint != null) {
+            checkpoint.finish();
+        }
+        if (stats != null) {
+            stats.riverRowsComputed += layout.rowsComputed();
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.addAllocatedSince(allocatedBefore);
         }
         return new int[]{bestWidth, bestRiver};
     }
 
-    public static void main(String[] args) {
-        Scanner scanner = new java.util.Scanner(System.in);
-        
-        int t = Integer.parseInt(scanner.nextLine().trim());
-        
-        for (int i = 0; i < t; i++) {
-            String texto = scanner.nextLine().trim();
-            int[] result = findOptimalWidthAndRiver(texto);
-            System.out.println(result[0] + " " + result[1]);
-        }
-        
-        scanner.close();
+    // ============================================================
+    // Lee t casos de la entrada estándar y escribe "ancho río" por
+    // caso (ver BatchRunner). Con -Dp1.threads=N se resuelven
+    // hasta N casos en paralelo, manteniendo el orden de salida.
+    // La estrategia se elige con --solver=nombre o
+    // -Driver.solver=nombre (ver RiverSolvers).
+    // ============================================================
+    public static void main(String[] args) throws java.io.IOException {
+        BatchRunner.run(System.in, System.out, Integer.getInteger("p1.threads", 1),
+                RiverSolvers.cached(RiverSolvers.fromArgs(args)));
     }
 
 }
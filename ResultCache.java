@@ -0,0 +1,273 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// ============================================================
+// Caché LRU acotada de resultados {ancho, río}.
+//
+// La llave es el SHA-256 de lo que el solver realmente consume:
+// la longitud del texto y la secuencia de longitudes de palabra
+// (el resultado no depende de nada más). Así funciona igual para
+// String, CompactText, archivos mapeados o WordTokens, y dos
+// textos con la misma forma comparten la entrada.
+//
+// Límites: número de entradas y memoria estimada (ENTRY_BYTES por
+// entrada); al pasarse de cualquiera se descarta la menos usada.
+// Opcionalmente se guarda en un archivo al terminar el proceso y
+// se carga al crearla.
+//
+// Configuración de la instancia compartida (shared()):
+//   -Dp1.cache.entries=N   máximo de entradas (0 desactiva la caché)
+//   -Dp1.cache.bytes=B     memoria máxima estimada
+//   -Dp1.cache.file=ruta   archivo de persistencia
+//
+// Es segura entre hilos. El cálculo de un resultado nuevo se hace
+// fuera del lock: dos hilos con el mismo texto pueden calcularlo a
+// la vez, pero ambos obtienen el mismo resultado.
+// ============================================================
+public final class ResultCache {
+
+    // Memoria estimada por entrada: llave (32 bytes + cabecera),
+    // resultado, nodo del LinkedHashMap y referencias
+    static final int ENTRY_BYTES = 160;
+
+    private static final int FILE_MAGIC = 0x52435631; // "RCV1"
+
+    private static volatile ResultCache shared;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final Path file;
+    private final LinkedHashMap<Key, int[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ResultCache(int maxEntries, long maxBytes, Path file) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.file = file;
+        if (file != null && Files.exists(file)) {
+            try {
+                load(file);
+            } catch (IOException e) {
+                System.err.println("Caché ignorada (" + file + "): " + e.getMessage());
+                entries.clear();
+            }
+        }
+    }
+
+    // ============================================================
+    // Instancia usada por ProblemaP1.findOptimalWidthAndRiver y
+    // por main. Si tiene archivo, se guarda al terminar el proceso.
+    // ============================================================
+    public static ResultCache shared() {
+        ResultCache cache = shared;
+        if (cache == null) {
+            synchronized (ResultCache.class) {
+                cache = shared;
+                if (cache == null) {
+                    String path = System.getProperty("p1.cache.file");
+                    cache = new ResultCache(Integer.getInteger("p1.cache.entries", 4096),
+                            Long.getLong("p1.cache.bytes", 8L << 20),
+                            path == null ? null : Paths.get(path));
+                    if (cache.file != null) {
+                        ResultCache toSave = cache;
+                        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                            try {
+                                toSave.save();
+                            } catch (IOException e) {
+                                System.err.println("No se pudo guardar la caché: " + e.getMessage());
+                            }
+                        }));
+                    }
+                    shared = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && maxBytes >= ENTRY_BYTES;
+    }
+
+    // ============================================================
+    // Resultado en caché para el texto, o compute(tokens) guardado.
+    // Retorna siempre una copia: el llamador puede modificarla.
+    // ============================================================
+    public int[] computeIfAbsent(WordTokens tokens, Function<WordTokens, int[]> compute) {
+        if (!isEnabled()) {
+            return compute.apply(tokens);
+        }
+        Key key = keyOf(tokens);
+        synchronized (this) {
+            int[] cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached.clone();
+            }
+            misses++;
+        }
+        int[] result = compute.apply(tokens);
+        synchronized (this) {
+            entries.put(key, new int[]{result[0], result[1]});
+            evictIfNeeded();
+        }
+        return result.clone();
+    }
+
+    // Descarta las entradas menos usadas hasta cumplir ambos límites
+    private void evictIfNeeded() {
+        Iterator<Key> it = entries.keySet().iterator();
+        while (it.hasNext() && (entries.size() > maxEntries
+                || (long) entries.size() * ENTRY_BYTES > maxBytes)) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "entries=" + entries.size() + " hits=" + hits + " misses=" + misses
+                + " evictions=" + evictions;
+    }
+
+    // ============================================================
+    // SHA-256 de (longitud del texto, número de palabras, longitudes
+    // de palabra en varint).
+    // ============================================================
+    static Key keyOf(WordTokens tokens) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+        byte[] buffer = new byte[8192];
+        int pos = putVarint(buffer, 0, tokens.textLength);
+        pos = putVarint(buffer, pos, tokens.numWords);
+        for (int k = 0; k < tokens.numWords; k++) {
+            if (pos > buffer.length - 5) {
+                sha.update(buffer, 0, pos);
+                pos = 0;
+            }
+            pos = putVarint(buffer, pos, tokens.wordLength[k]);
+        }
+        sha.update(buffer, 0, pos);
+        return new Key(sha.digest());
+    }
+
+    private static int putVarint(byte[] buffer, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[pos++] = (byte) value;
+        return pos;
+    }
+
+    // ============================================================
+    // Persistencia: magic, número de entradas y cada entrada
+    // (digest, ancho, río) de la menos a la más usada, para que al
+    // cargar se conserve el orden LRU. Se escribe a un archivo
+    // temporal y se reemplaza el original al final.
+    // ============================================================
+    public void save() throws IOException {
+        if (file != null) {
+            save(file);
+        }
+    }
+
+    public void save(Path target) throws IOException {
+        Map<Key, int[]> snapshot;
+        synchronized (this) {
+            snapshot = new LinkedHashMap<>(entries);
+        }
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<Key, int[]> e : snapshot.entrySet()) {
+                out.write(e.getKey().digest);
+                out.writeInt(e.getValue()[0]);
+                out.writeInt(e.getValue()[1]);
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void load(Path source) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("formato desconocido");
+            }
+            int count = in.readInt();
+            synchronized (this) {
+                for (int i = 0; i < count; i++) {
+                    byte[] digest = new byte[32];
+                    in.readFully(digest);
+                    entries.put(new Key(digest), new int[]{in.readInt(), in.readInt()});
+                }
+                evictIfNeeded();
+            }
+        }
+    }
+
+    // Digest con equals/hashCode por contenido
+    static final class Key {
+        final byte[] digest;
+        private final int hash;
+
+        Key(byte[] digest) {
+            this.digest = digest;
+            this.hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && Arrays.equals(digest, ((Key) o).digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
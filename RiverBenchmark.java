@@ -0,0 +1,197 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// ============================================================
+// Microbenchmarks de los solvers sobre todos los corpus.
+//
+// Sigue el esquema de JMH sin depender de él:
+// - Iteraciones de calentamiento (descartadas) para que el JIT
+//   compile antes de medir.
+// - Iteraciones de medición de duración fija; cada una ejecuta la
+//   operación tantas veces como quepa y reporta ns/op.
+// - El resultado de cada operación se acumula en un sumidero
+//   volátil para que el JIT no elimine el trabajo.
+// - Bytes asignados por operación (equivalente a
+//   gc.alloc.rate.norm de -prof gc) con
+//   com.sun.management.ThreadMXBean.
+//
+// Uso:
+//   java RiverBenchmark [--warmup N] [--iterations N] [--time ms]
+//                       [--filter regex] [--csv]
+// El filtro se aplica a "operación:archivo".
+// ============================================================
+public final class RiverBenchmark {
+
+    static final String[] CORPUS_DIRS = {
+        "CasosDePruebaA-Z",
+        "CasosDePruebaCicero",
+        "CasosDePruebaLiLanguages",
+        "CasosDePruebaLoremIpsum",
+        "CasosDePruebaSmall"
+    };
+
+    private static volatile long sink;
+
+    private RiverBenchmark() {
+    }
+
+    // Una operación a medir sobre un texto
+    private static final class Operation {
+        final String name;
+        final ToIntFunction<String> body;
+
+        Operation(String name, ToIntFunction<String> body) {
+            this.name = name;
+            this.body = body;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int warmup = 3;
+        int iterations = 5;
+        long iterationMillis = 200;
+        Pattern filter = null;
+        boolean csv = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--warmup": warmup = Integer.parseInt(args[++i]); break;
+                case "--iterations": iterations = Integer.parseInt(args[++i]); break;
+                case "--time": iterationMillis = Long.parseLong(args[++i]); break;
+                case "--filter": filter = Pattern.compile(args[++i]); break;
+                case "--csv": csv = true; break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        List<Path> files = corpusFiles();
+        System.out.println(csv
+                ? "operation,file,chars,ns_per_op,ns_stddev,bytes_per_op"
+                : String.format(Locale.ROOT, "%-42s %-45s %12s %10s %14s",
+                        "operación", "archivo", "ns/op", "±", "bytes/op"));
+        for (Path file : files) {
+            String texto = readFirstLine(file);
+            for (Operation op : operations(texto)) {
+                String id = op.name + ":" + file;
+                if (filter != null && !filter.matcher(id).find()) {
+                    continue;
+                }
+                double[] r = measure(op.body, texto, warmup, iterations, iterationMillis);
+                if (csv) {
+                    System.out.printf(Locale.ROOT, "%s,%s,%d,%.1f,%.1f,%.0f%n",
+                            op.name, file, texto.length(), r[0], r[1], r[2]);
+                } else {
+                    System.out.printf(Locale.ROOT, "%-42s %-45s %12.1f %10.1f %14.0f%n",
+                            op.name, file, r[0], r[1], r[2]);
+                }
+            }
+        }
+    }
+
+    // ============================================================
+    // Operaciones medidas. textToLines y findLongestRiverOptimized
+    // se miden en el ancho óptimo del texto (el layout que importa).
+    // ============================================================
+    private static List<Operation> operations(String texto) {
+        int width = ProblemaP1.findOptimalWidthAndRiver(texto)[0];
+        String[] lines = ProblemaP1.textToLines(texto, width);
+        CompactText compact = CompactText.of(texto);
+        List<Operation> ops = new ArrayList<>();
+        ops.add(new Operation("tokenize(String)",
+                t -> WordTokens.tokenize(t).numWords));
+        ops.add(new Operation("tokenize(CompactText)",
+                t -> WordTokens.tokenize(compact).numWords));
+        ops.add(new Operation("textToLines",
+                t -> ProblemaP1.textToLines(t, width).length));
+        ops.add(new Operation("findLongestRiverOptimized",
+                t -> ProblemaP1.findLongestRiverOptimized(lines)));
+        ops.add(new Operation("findOptimalWidthAndRiver",
+                t -> ProblemaP1.findOptimalWidthAndRiver(WordTokens.tokenize(t), RiverBound.DEFAULTS, null)[1]));
+        ops.add(new Operation("findOptimalWidthAndRiverWithJumps",
+                t -> GreatestTypographicRiverV3.findOptimalWidthAndRiverWithJumps(t)[1]));
+        ops.add(new Operation("findOptimalWidthAndRiverNoJumps",
+                t -> GreatestTypographicRiverV3.findOptimalWidthAndRiverNoJumps(t)[1]));
+        return ops;
+    }
+
+    // Retorna {ns/op promedio, desviación estándar, bytes/op}
+    static double[] measure(ToIntFunction<String> body, String texto,
+                            int warmup, int iterations, long iterationMillis) {
+        for (int i = 0; i < warmup; i++) {
+            runIteration(body, texto, iterationMillis);
+        }
+        double[] nsPerOp = new double[iterations];
+        double bytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            double[] r = runIteration(body, texto, iterationMillis);
+            nsPerOp[i] = r[0];
+            bytes += r[1];
+        }
+        double mean = 0;
+        for (double v : nsPerOp) {
+            mean += v;
+        }
+        mean /= iterations;
+        double var = 0;
+        for (double v : nsPerOp) {
+            var += (v - mean) * (v - mean);
+        }
+        double stddev = iterations > 1 ? Math.sqrt(var / (iterations - 1)) : 0;
+        return new double[]{mean, stddev, bytes / iterations};
+    }
+
+    // Una iteración: repetir la operación hasta cumplir el tiempo
+    private static double[] runIteration(ToIntFunction<String> body, String texto,
+                                         long iterationMillis) {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        long ops = 0;
+        long acc = 0;
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        long now;
+        do {
+            acc += body.applyAsInt(texto);
+            ops++;
+            now = System.nanoTime();
+        } while (now < deadline);
+        long bytesAfter = allocatedBytes();
+        sink += acc;
+        return new double[]{(double) (now - start) / ops, (double) (bytesAfter - bytesBefore) / ops};
+    }
+
+    // Bytes asignados por el hilo actual, o -1 si la JVM no lo soporta
+    static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean)
+                    .getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    static List<Path> corpusFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String dir : CORPUS_DIRS) {
+            try (Stream<Path> s = Files.list(Paths.get(dir))) {
+                s.filter(p -> p.toString().endsWith(".txt")).sorted().forEach(files::add);
+            }
+        }
+        return files;
+    }
+
+    // Igual que probarCategoria: el texto es la primera línea del archivo
+    static String readFirstLine(Path file) throws IOException {
+        try (java.io.BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line == null ? "" : line;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+// ============================================================
+// Cota superior barata del río de un layout, para podar anchos
+// antes de correr la DP completa.
+//
+// Una cota debe cumplir: upperBound(layout) >= río real del
+// layout. Así, si la cota es menor que el mejor río encontrado,
+// el ancho no puede ganar y se salta (misma regla que la poda
+// "lines.length < bestRiver" del barrido original).
+//
+// Las cotas se evalúan en orden; conviene poner primero las más
+// baratas. DEFAULTS es el orden que usa el barrido principal.
+// ============================================================
+public interface RiverBound {
+
+    String name();
+
+    int upperBound(WordTokens tokens, LineLayout layout);
+
+    // ============================================================
+    // Cada línea aporta a lo sumo 1 al río: cota = número de líneas.
+    // Complejidad: O(1)
+    // ============================================================
+    RiverBound LINE_COUNT = new RiverBound() {
+        @Override
+        public String name() {
+            return "lineCount";
+        }
+
+        @Override
+        public int upperBound(WordTokens tokens, LineLayout layout) {
+            return layout.numLines;
+        }
+    };
+
+    // ============================================================
+    // Un río solo atraviesa líneas con algún espacio interior, así
+    // que no puede ser más largo que la racha más larga de líneas
+    // consecutivas que tienen uno.
+    // Complejidad: O(número de líneas)
+    // ============================================================
+    RiverBound SPACE_RUN = new RiverBound() {
+        @Override
+        public String name() {
+            return "spaceRun";
+        }
+
+        @Override
+        public int upperBound(WordTokens tokens, LineLayout layout) {
+            int best = 0;
+            int run = 0;
+            for (int i = 0; i < layout.numLines; i++) {
+                if (firstInteriorGap(tokens, layout, i) >= 0) {
+                    run++;
+                    best = Math.max(best, run);
+                } else {
+                    run = 0;
+                }
+            }
+            return best;
+        }
+    };
+
+    // ============================================================
+    // Refina SPACE_RUN: el río se mueve a lo sumo una columna por
+    // fila, así que dos líneas consecutivas solo pueden estar en el
+    // mismo río si sus rangos [primer espacio, último espacio]
+    // quedan a distancia <= 1. Cota = racha más larga de líneas
+    // consecutivas con espacio interior y rangos compatibles.
+    // Complejidad: O(número de líneas)
+    // ============================================================
+    RiverBound GAP_EXTENT = new RiverBound() {
+        @Override
+        public String name() {
+            return "gapExtent";
+        }
+
+        @Override
+        public int upperBound(WordTokens tokens, LineLayout layout) {
+            int best = 0;
+            int run = 0;
+            int prevFirst = 0;
+            int prevLast = -1;
+            for (int i = 0; i < layout.numLines; i++) {
+                int first = firstInteriorGap(tokens, layout, i);
+                if (first < 0) {
+                    run = 0;
+                    continue;
+                }
+                int last = lastInteriorGap(tokens, layout, i);
+                if (run > 0 && first <= prevLast + 1 && last >= prevFirst - 1) {
+                    run++;
+                } else {
+                    run = 1;
+                }
+                best = Math.max(best, run);
+                prevFirst = first;
+                prevLast = last;
+            }
+            return best;
+        }
+    };
+
+    RiverBound[] DEFAULTS = {LINE_COUNT, SPACE_RUN, GAP_EXTENT};
+
+    // Columna del primer espacio interior de la línea i, o -1
+    static int firstInteriorGap(WordTokens tokens, LineLayout layout, int i) {
+        int start = layout.lineStart[i];
+        if (layout.lineEnd[i] - start < 2) {
+            return -1;
+        }
+        int col = tokens.wordLength[start];
+        return col < layout.lineLength[i] - 1 ? col : -1;
+    }
+
+    // Columna del último espacio interior de la línea i (la línea
+    // debe tener alguno). Solo el espacio antes de una palabra final
+    // vacía puede quedar al final de la línea.
+    static int lastInteriorGap(WordTokens tokens, LineLayout layout, int i) {
+        int end = layout.lineEnd[i];
+        int col = layout.lineLength[i] - 1 - tokens.wordLength[end - 1];
+        if (col == layout.lineLength[i] - 1) {
+            col -= 1 + tokens.wordLength[end - 2];
+        }
+        return col;
+    }
+}
@@ -0,0 +1,683 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// Búsqueda repartida entre varios procesos (JVMs) por sockets.
+//
+// Un coordinador lee la entrada multi-caso de ProblemaP1 y la
+// reparte entre trabajadores conectados a él:
+// - Casos cortos: cada caso completo va a un trabajador, que lo
+//   resuelve con su solver local (hasta WINDOW casos en vuelo por
+//   trabajador). Las respuestas se escriben en el orden de entrada.
+// - Casos de al menos --shard-min caracteres: el rango de anchos
+//   de ese documento se reparte entre todos los trabajadores en
+//   bloques de RANGE_WIDTHS anchos, de menor a mayor, como los
+//   hilos de ParallelWidthSearch.
+//
+// Con el rango repartido, cada mejora del río (codificada como en
+// ParallelWidthSearch: mayor río, y en empate el ancho menor) se
+// envía al coordinador, que la retransmite a los demás
+// trabajadores. Así todos cortan con la misma condición que el
+// barrido secuencial (ProblemaP1.searchIsOver) usando el mejor río
+// global, y el coordinador deja de repartir anchos por encima del
+// último que puede ganar. El resultado es el mismo {ancho, río}
+// que ProblemaP1.findOptimalWidthAndRiver.
+//
+// Uso:
+//   java RiverCluster coordinator --spawn=N < entrada
+//       lanza N trabajadores locales (misma JVM y classpath)
+//   java RiverCluster coordinator --port=P --workers=N [--bind=ip] < entrada
+//       espera N trabajadores externos (por defecto en 127.0.0.1)
+//   java RiverCluster worker --connect=host:P [--solver=nombre]
+//
+// Opciones del coordinador: --shard-min=C (20000 caracteres).
+//
+// Si un trabajador falla (envía ERROR con la causa) o se
+// desconecta a mitad de la búsqueda, el coordinador falla con
+// IOException; no hay reintentos.
+// ============================================================
+public final class RiverCluster {
+
+    // Mensajes coordinador -> trabajador
+    static final byte SHUTDOWN = 0;
+    static final byte DOC = 1;
+    static final byte RANGE = 2;
+    static final byte INCUMBENT = 3;
+    static final byte CASE = 4;
+    // Mensajes trabajador -> coordinador
+    static final byte RANGE_DONE = 5;
+    static final byte IMPROVED = 6;
+    static final byte CASE_RESULT = 7;
+    static final byte ERROR = 8;
+    // Evento local del coordinador: conexión cerrada
+    private static final byte DISCONNECTED = -1;
+
+    // Anchos por bloque al repartir un documento
+    static final int RANGE_WIDTHS = 32;
+    // Bloques o casos en vuelo por trabajador
+    static final int WINDOW = 2;
+    // Sin ancho de corte en RANGE_DONE
+    private static final int NO_STOP = Integer.MAX_VALUE;
+
+    private RiverCluster() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length == 0) {
+            System.err.println("Uso: RiverCluster coordinator|worker [opciones]");
+            System.exit(2);
+        }
+        if (args[0].equals("worker")) {
+            String connect = option(args, "--connect=", "127.0.0.1:7070");
+            int colon = connect.lastIndexOf(':');
+            runWorker(connect.substring(0, colon), Integer.parseInt(connect.substring(colon + 1)),
+                    RiverSolvers.cached(RiverSolvers.requireTokens(RiverSolvers.fromArgs(args))));
+        } else if (args[0].equals("coordinator")) {
+            int spawn = Integer.parseInt(option(args, "--spawn=", "0"));
+            int workers = Integer.parseInt(option(args, "--workers=", "1"));
+            if (workers < 1) {
+                throw new IllegalArgumentException("--workers debe ser >= 1: " + workers);
+            }
+            int shardMin = Integer.parseInt(option(args, "--shard-min=", "20000"));
+            try (Coordinator coordinator = spawn > 0
+                    ? Coordinator.spawn(spawn, args)
+                    : Coordinator.listen(InetAddress.getByName(option(args, "--bind=", "127.0.0.1")),
+                    Integer.parseInt(option(args, "--port=", "7070")), workers)) {
+                coordinator.runBatch(System.in, System.out, shardMin);
+            }
+        } else {
+            System.err.println("Modo desconocido: " + args[0]);
+            System.exit(2);
+        }
+    }
+
+    private static String option(String[] args, String prefix, String fallback) {
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return fallback;
+    }
+
+    // ============================================================
+    // Formato de un texto en los mensajes: longitud del texto,
+    // número de palabras y sus longitudes (lo único que usa el
+    // solver, igual que la llave de ResultCache).
+    // ============================================================
+    static void writeTokens(DataOutputStream out, WordTokens tokens) throws IOException {
+        out.writeInt(tokens.textLength);
+        out.writeInt(tokens.numWords);
+        for (int k = 0; k < tokens.numWords; k++) {
+            out.writeInt(tokens.wordLength[k]);
+        }
+    }
+
+    // Reconstruye los tokens; las posiciones suponen un espacio
+    // entre palabras (no se usan para el ancho ni el río)
+    static WordTokens readTokens(DataInputStream in) throws IOException {
+        int textLength = in.readInt();
+        int numWords = in.readInt();
+        int[] starts = new int[numWords];
+        int[] lengths = new int[numWords];
+        int start = 0;
+        for (int k = 0; k < numWords; k++) {
+            lengths[k] = in.readInt();
+            starts[k] = start;
+            start += lengths[k] + 1;
+        }
+        return new WordTokens(starts, lengths, numWords, textLength);
+    }
+
+    // ============================================================
+    // Trabajador: un hilo lee mensajes y otro calcula, para que las
+    // mejoras retransmitidas lleguen mientras se barre un bloque.
+    // Solo el hilo de cálculo escribe al coordinador. Si el cálculo
+    // falla con cualquier excepción o error, se envía ERROR y se
+    // cierra el socket: el coordinador nunca queda esperando.
+    // ============================================================
+    static void runWorker(String host, int port, RiverSolver solver)
+            throws IOException, InterruptedException {
+        Socket socket = connect(host, port);
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        BlockingQueue<WorkerTask> tasks = new LinkedBlockingQueue<>();
+        Thread compute = new Thread(() -> {
+            LineLayout layout = new LineLayout();
+            RiverEngine engine = new RiverEngine();
+            try {
+                while (true) {
+                    WorkerTask task = tasks.take();
+                    if (task.doc == null && task.tokens == null) {
+                        return;
+                    }
+                    if (task.doc != null) {
+                        sweepRange(task.doc, task.from, task.to, layout, engine, out);
+                    } else {
+                        int[] result = solver.solve(task.tokens);
+                        out.writeByte(CASE_RESULT);
+                        out.writeInt(task.id);
+                        out.writeInt(result[0]);
+                        out.writeInt(result[1]);
+                        out.flush();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                System.err.println("Trabajador: conexión perdida: " + e.getMessage());
+            } catch (Throwable e) {
+                System.err.println("Trabajador: error en el cálculo: " + e);
+                reportFailure(out, e);
+                try {
+                    socket.close();
+                } catch (IOException closeError) {
+                    // Ya estaba cerrado
+                }
+            }
+        }, "river-worker");
+        compute.start();
+        SharedDoc current = null;
+        try {
+            while (true) {
+                byte type = in.readByte();
+                if (type == SHUTDOWN) {
+                    break;
+                } else if (type == DOC) {
+                    int id = in.readInt();
+                    current = new SharedDoc(id, readTokens(in));
+                } else if (type == RANGE) {
+                    int id = in.readInt();
+                    int from = in.readInt();
+                    int to = in.readInt();
+                    if (current == null || current.id != id) {
+                        throw new IOException("Bloque de un documento desconocido: " + id);
+                    }
+                    tasks.put(new WorkerTask(current, 0, from, to, null));
+                } else if (type == INCUMBENT) {
+                    int id = in.readInt();
+                    long best = in.readLong();
+                    if (current != null && current.id == id) {
+                        current.best.accumulateAndGet(best, Math::max);
+                    }
+                } else if (type == CASE) {
+                    int id = in.readInt();
+                    tasks.put(new WorkerTask(null, id, 0, 0, readTokens(in)));
+                } else {
+                    throw new IOException("Mensaje desconocido: " + type);
+                }
+            }
+        } catch (EOFException e) {
+            // El coordinador cerró la conexión
+        } catch (IOException e) {
+            // Si el hilo de cálculo cerró el socket ya avisó del error
+            if (!socket.isClosed()) {
+                throw e;
+            }
+        } finally {
+            tasks.put(new WorkerTask(null, 0, 0, 0, null));
+            compute.join();
+            socket.close();
+        }
+    }
+
+    // Mensaje ERROR con la causa (writeUTF admite hasta 64 KB)
+    private static void reportFailure(DataOutputStream out, Throwable failure) {
+        String message = String.valueOf(failure);
+        if (message.length() > 1000) {
+            message = message.substring(0, 1000);
+        }
+        try {
+            out.writeByte(ERROR);
+            out.writeUTF(message);
+            out.flush();
+        } catch (IOException e) {
+            // Sin conexión: el coordinador verá la desconexión
+        }
+    }
+
+    // El coordinador puede tardar un poco en escuchar
+    private static Socket connect(String host, int port) throws IOException, InterruptedException {
+        IOException last = null;
+        for (int attempt = 0; attempt < 50; attempt++) {
+            try {
+                return new Socket(host, port);
+            } catch (IOException e) {
+                last = e;
+                Thread.sleep(200);
+            }
+        }
+        throw last;
+    }
+
+    // ============================================================
+    // Barre los anchos [from, to] de un documento con las podas de
+    // ParallelWidthSearch, usando el mejor río global conocido.
+    // Envía IMPROVED en cuanto mejora el global y RANGE_DONE al
+    // final con el mejor del bloque y el ancho de corte (último
+    // ancho que puede ganar), o NO_STOP si no hubo corte.
+    // ============================================================
+    private static void sweepRange(SharedDoc doc, int from, int to, LineLayout layout,
+                                   RiverEngine engine, DataOutputStream out) throws IOException {
+        WordTokens tokens = doc.tokens;
+        long local = Long.MIN_VALUE;
+        int stop = NO_STOP;
+        for (int width = from; width <= to; width++) {
+            tokens.layout(width, layout);
+            long incumbent = doc.best.get();
+            if (layout.numLines < 2 || ParallelWidthSearch.encode(layout.numLines, width) < incumbent) {
+                stop = width - 1;
+                break;
+            }
+            int river = engine.longestRiver(tokens, layout);
+            long key = ParallelWidthSearch.encode(river, width);
+            if (key > local) {
+                local = key;
+            }
+            if (key > incumbent) {
+                doc.best.accumulateAndGet(key, Math::max);
+                out.writeByte(IMPROVED);
+                out.writeInt(doc.id);
+                out.writeLong(key);
+                out.flush();
+            }
+            if (river == layout.numLines) {
+                stop = width;
+                break;
+            }
+        }
+        out.writeByte(RANGE_DONE);
+        out.writeInt(doc.id);
+        out.writeInt(from);
+        out.writeInt(to);
+        out.writeLong(local);
+        out.writeInt(stop);
+        out.flush();
+    }
+
+    // Documento repartido, con el mejor (río, ancho) global conocido
+    private static final class SharedDoc {
+        final int id;
+        final WordTokens tokens;
+        final AtomicLong best;
+
+        SharedDoc(int id, WordTokens tokens) {
+            this.id = id;
+            this.tokens = tokens;
+            this.best = new AtomicLong(ParallelWidthSearch.encode(0, tokens.maxWordLength));
+        }
+    }
+
+    // Bloque de anchos (doc != null), caso completo (tokens != null)
+    // o fin (ambos null)
+    private static final class WorkerTask {
+        final SharedDoc doc;
+        final int id;
+        final int from;
+        final int to;
+        final WordTokens tokens;
+
+        WorkerTask(SharedDoc doc, int id, int from, int to, WordTokens tokens) {
+            this.doc = doc;
+            this.id = id;
+            this.from = from;
+            this.to = to;
+            this.tokens = tokens;
+        }
+    }
+
+    // ============================================================
+    // Coordinador. Un hilo por trabajador lee sus mensajes y los
+    // deja en una única cola de eventos; toda la lógica (reparto,
+    // retransmisión, orden de salida) corre en el hilo principal,
+    // que es el único que escribe a los trabajadores.
+    // ============================================================
+    static final class Coordinator implements AutoCloseable {
+
+        private final List<Link> links = new ArrayList<>();
+        private final BlockingQueue<Event> events = new LinkedBlockingQueue<>();
+        private final List<Process> processes = new ArrayList<>();
+        private int nextDocId;
+
+        // Escucha en (bind, port) y espera 'workers' conexiones
+        static Coordinator listen(InetAddress bind, int port, int workers) throws IOException {
+            Coordinator coordinator = new Coordinator();
+            try (ServerSocket server = new ServerSocket()) {
+                server.bind(new InetSocketAddress(bind, port));
+                System.err.println("Esperando " + workers + " trabajadores en "
+                        + bind.getHostAddress() + ":" + server.getLocalPort());
+                coordinator.accept(server, workers);
+            }
+            return coordinator;
+        }
+
+        // Lanza 'workers' procesos locales con la JVM y el classpath
+        // actuales; las opciones --solver= se les pasan tal cual
+        static Coordinator spawn(int workers, String[] args) throws IOException {
+            Coordinator coordinator = new Coordinator();
+            try (ServerSocket server = new ServerSocket()) {
+                server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+                String java = System.getProperty("java.home") + File.separator + "bin"
+                        + File.separator + "java";
+                for (int i = 0; i < workers; i++) {
+                    List<String> command = new ArrayList<>();
+                    command.add(java);
+                    command.add("-cp");
+                    command.add(System.getProperty("java.class.path"));
+                    command.add("RiverCluster");
+                    command.add("worker");
+                    command.add("--connect=127.0.0.1:" + server.getLocalPort());
+                    for (String arg : args) {
+                        if (arg.startsWith("--solver=")) {
+                            command.add(arg);
+                        }
+                    }
+                    coordinator.processes.add(new ProcessBuilder(command)
+                            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                            .redirectError(ProcessBuilder.Redirect.INHERIT)
+                            .start());
+                }
+                server.setSoTimeout(30_000);
+                coordinator.accept(server, workers);
+            } catch (IOException e) {
+                coordinator.close();
+                throw e;
+            }
+            return coordinator;
+        }
+
+        private void accept(ServerSocket server, int workers) throws IOException {
+            for (int i = 0; i < workers; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                Link link = new Link(links.size(), socket);
+                links.add(link);
+                Thread reader = new Thread(() -> link.readLoop(events), "river-link-" + link.index);
+                reader.setDaemon(true);
+                reader.start();
+            }
+        }
+
+        // ========================================================
+        // Entrada multi-caso de ProblemaP1 -> "ancho río" por caso
+        // ========================================================
+        void runBatch(InputStream in, OutputStream out, int shardMin)
+                throws IOException, InterruptedException {
+            Charset charset = Charset.defaultCharset();
+            BatchRunner.LineReader reader = new BatchRunner.LineReader(in, charset);
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, charset), 1 << 16);
+            String first = reader.readLine();
+            if (first == null) {
+                writer.flush();
+                return;
+            }
+            int t = Integer.parseInt(first.trim());
+            // Casos enviados, en orden de entrada, y los ya resueltos
+            ArrayDeque<Integer> order = new ArrayDeque<>();
+            Map<Integer, int[]> done = new HashMap<>();
+            for (int i = 0; i < t; i++) {
+                CompactText texto = reader.readText();
+                if (texto == null) {
+                    break;
+                }
+                WordTokens tokens = WordTokens.tokenize(texto);
+                if (tokens.textLength >= shardMin && links.size() > 1) {
+                    while (!order.isEmpty()) {
+                        handleCaseEvent(done);
+                        writeReady(writer, order, done);
+                    }
+                    writeResult(writer, shard(tokens));
+                    continue;
+                }
+                Link link = leastLoaded();
+                while (link.inFlight >= WINDOW) {
+                    handleCaseEvent(done);
+                    writeReady(writer, order, done);
+                    link = leastLoaded();
+                }
+                link.out.writeByte(CASE);
+                link.out.writeInt(i);
+                writeTokens(link.out, tokens);
+                link.out.flush();
+                link.inFlight++;
+                order.addLast(i);
+                writeReady(writer, order, done);
+            }
+            while (!order.isEmpty()) {
+                handleCaseEvent(done);
+                writeReady(writer, order, done);
+            }
+            writer.flush();
+        }
+
+        private Link leastLoaded() {
+            Link best = links.get(0);
+            for (Link link : links) {
+                if (link.inFlight < best.inFlight) {
+                    best = link;
+                }
+            }
+            return best;
+        }
+
+        private void handleCaseEvent(Map<Integer, int[]> done) throws IOException, InterruptedException {
+            Event e = nextEvent();
+            if (e.type != CASE_RESULT) {
+                throw new IOException("Mensaje inesperado del trabajador " + e.link.index + ": " + e.type);
+            }
+            e.link.inFlight--;
+            done.put(e.id, new int[]{e.a, e.b});
+        }
+
+        private static void writeReady(Writer writer, ArrayDeque<Integer> order, Map<Integer, int[]> done)
+                throws IOException {
+            while (!order.isEmpty() && done.containsKey(order.peekFirst())) {
+                writeResult(writer, done.remove(order.pollFirst()));
+            }
+        }
+
+        private static void writeResult(Writer writer, int[] result) throws IOException {
+            writer.write(Integer.toString(result[0]));
+            writer.write(' ');
+            writer.write(Integer.toString(result[1]));
+            writer.write('\n');
+        }
+
+        // ========================================================
+        // Reparte el rango de anchos de un documento entre todos
+        // los trabajadores. Retorna {ancho óptimo, río más largo}.
+        // ========================================================
+        int[] shard(WordTokens tokens) throws IOException, InterruptedException {
+            int minWidth = tokens.maxWordLength;
+            int maxWidth = tokens.textLength - 1;
+            if (maxWidth < minWidth) {
+                return new int[]{minWidth, 0};
+            }
+            int docId = nextDocId++;
+            for (Link link : links) {
+                link.out.writeByte(DOC);
+                link.out.writeInt(docId);
+                writeTokens(link.out, tokens);
+                link.out.flush();
+            }
+            long best = ParallelWidthSearch.encode(0, minWidth);
+            // Siguiente ancho sin asignar y último ancho que puede ganar
+            int next = minWidth;
+            int stop = maxWidth;
+            int pending = 0;
+            for (int round = 0; round < WINDOW; round++) {
+                for (Link link : links) {
+                    if (next <= stop) {
+                        next = sendRange(link, docId, next, stop);
+                        pending++;
+                    }
+                }
+            }
+            while (pending > 0) {
+                Event e = nextEvent();
+                if (e.id != docId || (e.type != IMPROVED && e.type != RANGE_DONE)) {
+                    throw new IOException("Mensaje inesperado del trabajador " + e.link.index + ": " + e.type);
+                }
+                if (e.value > best) {
+                    best = e.value;
+                    broadcast(docId, best, e.link);
+                }
+                if (e.type == RANGE_DONE) {
+                    pending--;
+                    stop = Math.min(stop, e.stop);
+                    if (next <= stop) {
+                        next = sendRange(e.link, docId, next, stop);
+                        pending++;
+                    }
+                }
+            }
+            return new int[]{ParallelWidthSearch.decodeWidth(best), ParallelWidthSearch.decodeRiver(best)};
+        }
+
+        // Envía [from, min(from + RANGE_WIDTHS - 1, stop)]; retorna el siguiente
+        private static int sendRange(Link link, int docId, int from, int stop) throws IOException {
+            int to = (int) Math.min((long) from + RANGE_WIDTHS - 1, stop);
+            link.out.writeByte(RANGE);
+            link.out.writeInt(docId);
+            link.out.writeInt(from);
+            link.out.writeInt(to);
+            link.out.flush();
+            return to + 1;
+        }
+
+        // Nuevo mejor global a todos menos a quien lo encontró
+        private void broadcast(int docId, long best, Link source) throws IOException {
+            for (Link link : links) {
+                if (link != source) {
+                    link.out.writeByte(INCUMBENT);
+                    link.out.writeInt(docId);
+                    link.out.writeLong(best);
+                    link.out.flush();
+                }
+            }
+        }
+
+        private Event nextEvent() throws IOException, InterruptedException {
+            Event e = events.take();
+            if (e.type == DISCONNECTED) {
+                throw new IOException(e.message != null
+                        ? "Trabajador " + e.link.index + " falló: " + e.message
+                        : "Trabajador " + e.link.index + " desconectado");
+            }
+            return e;
+        }
+
+        // Avisa a los trabajadores y espera a los procesos lanzados
+        @Override
+        public void close() {
+            for (Link link : links) {
+                try {
+                    link.out.writeByte(SHUTDOWN);
+                    link.out.flush();
+                    link.socket.close();
+                } catch (IOException e) {
+                    // Ya estaba cerrado
+                }
+            }
+            for (Process process : processes) {
+                try {
+                    process.waitFor();
+                } catch (InterruptedException e) {
+                    process.destroy();
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    // Conexión con un trabajador
+    private static final class Link {
+        final int index;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        // Casos completos enviados y sin respuesta
+        int inFlight;
+
+        Link(int index, Socket socket) throws IOException {
+            this.index = index;
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void readLoop(BlockingQueue<Event> events) {
+            try {
+                while (true) {
+                    byte type = in.readByte();
+                    if (type == CASE_RESULT) {
+                        events.put(new Event(this, type, in.readInt(), in.readInt(), in.readInt(), 0, 0, null));
+                    } else if (type == IMPROVED) {
+                        events.put(new Event(this, type, in.readInt(), 0, 0, in.readLong(), NO_STOP, null));
+                    } else if (type == RANGE_DONE) {
+                        int id = in.readInt();
+                        int from = in.readInt();
+                        int to = in.readInt();
+                        events.put(new Event(this, type, id, from, to, in.readLong(), in.readInt(), null));
+                    } else if (type == ERROR) {
+                        events.put(new Event(this, DISCONNECTED, 0, 0, 0, 0, 0, in.readUTF()));
+                        return;
+                    } else {
+                        throw new IOException("Mensaje desconocido: " + type);
+                    }
+                }
+            } catch (IOException | InterruptedException e) {
+                events.add(new Event(this, DISCONNECTED, 0, 0, 0, 0, 0, null));
+            }
+        }
+    }
+
+    // Mensaje recibido de un trabajador
+    private static final class Event {
+        final Link link;
+        final byte type;
+        // Caso o documento
+        final int id;
+        final int a;
+        final int b;
+        final long value;
+        final int stop;
+        // Causa enviada por el trabajador con ERROR, o null
+        final String message;
+
+        Event(Link link, byte type, int id, int a, int b, long value, int stop, String message) {
+            this.link = link;
+            this.type = type;
+            this.id = id;
+            this.a = a;
+            this.b = b;
+            this.value = value;
+            this.stop = stop;
+            this.message = message;
+        }
+    }
+}
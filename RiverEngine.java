@@ -0,0 +1,283 @@
+// ============================================================
+// Motor del río tipográfico que solo recorre los espacios
+// interiores de cada línea (no cada carácter).
+//
+// La DP es la misma que findLongestRiverOptimized:
+// river(i, j) = 1 + max(river(i+1, j-1..j+1)) si (i, j) es un
+// espacio interior. Pero en lugar de una tabla int[filas][ancho]
+// se usan solo dos filas "rodantes" indexadas por columna:
+// la fila actual y la fila inferior. Memoria: O(ancho).
+//
+// Para no limpiar las filas entre usos, cada celda guarda una
+// etiqueta (tag) de la fila que la escribió; una celda solo es
+// válida si su tag coincide con el de la fila inferior.
+//
+// Una instancia NO es thread-safe: cada hilo usa la suya y la
+// reutiliza entre anchos.
+// ============================================================
+public final class RiverEngine {
+
+    // Resultado de longestRiver con deadline cuando se agota el tiempo
+    public static final int CANCELLED = -1;
+    // Palabras recorridas entre consultas al reloj
+    private static final int CHECK_CELLS = 4096;
+
+    private int[] valA = new int[0];
+    private int[] tagA = new int[0];
+    private int[] valB = new int[0];
+    private int[] tagB = new int[0];
+    private int lastTag = 0;
+
+    // ============================================================
+    // Río más largo del layout. Mismo resultado que
+    // findLongestRiverOptimized sobre las líneas equivalentes.
+    // Complejidad: O(número de palabras) en tiempo, O(ancho) en memoria
+    // ============================================================
+    public int longestRiver(WordTokens tokens, LineLayout layout) {
+        return computeRows(tokens, layout, layout.numLines, null, null, false, 0);
+    }
+
+    // ============================================================
+    // Igual que longestRiver, pero abandona la DP y retorna
+    // CANCELLED si System.nanoTime() alcanza 'deadline'. El reloj se
+    // consulta entre filas, cada CHECK_CELLS palabras recorridas,
+    // así que una DP larga se corta sin esperar a terminar.
+    // ============================================================
+    public int longestRiver(WordTokens tokens, LineLayout layout, long deadline) {
+        return computeRows(tokens, layout, layout.numLines, null, null, true, deadline);
+    }
+
+    // ============================================================
+    // Variante para IncrementalLayout: solo calcula las filas
+    // [0, validFrom). Las filas desde validFrom ya tienen su valor
+    // guardado en gapRiver (indexado por palabra: río que empieza
+    // en el espacio anterior a la palabra k) y suffixBest[i] es el
+    // mejor río que empieza en alguna fila >= i.
+    //
+    // Actualiza gapRiver y suffixBest para las filas calculadas y
+    // retorna el río más largo de todo el layout.
+    // ============================================================
+    int longestRiverAbove(WordTokens tokens, LineLayout layout, int validFrom,
+                          int[] gapRiver, int[] suffixBest) {
+        computeRows(tokens, layout, validFrom, gapRiver, suffixBest, false, 0);
+        return layout.numLines == 0 ? 0 : suffixBest[0];
+    }
+
+    // Núcleo de la DP: filas desde validFrom - 1 hasta 0. Si gapRiver
+    // no es null, la fila validFrom se carga desde ahí y se guardan
+    // los valores calculados. Con timed, retorna CANCELLED al pasar
+    // de 'deadline'
+    private int computeRows(WordTokens tokens, LineLayout layout, int validFrom,
+                            int[] gapRiver, int[] suffixBest, boolean timed, long deadline) {
+        int numRows = layout.numLines;
+        if (numRows == 0) {
+            return 0;
+        }
+        ensureCapacity(layout.width);
+        reserveTags(numRows + 1);
+        int[] wordLength = tokens.wordLength;
+        int[] curVal = valA;
+        int[] curTag = tagA;
+        int[] belowVal = valB;
+        int[] belowTag = tagB;
+        // La fila debajo de la última no existe: su tag nunca se escribe
+        int tagBelow = nextTag();
+        if (gapRiver != null && validFrom < numRows) {
+            // Cargar la fila validFrom, ya calculada, como fila inferior
+            int lastCol = layout.lineLength[validFrom] - 1;
+            int end = layout.lineEnd[validFrom];
+            int col = wordLength[layout.lineStart[validFrom]];
+            for (int k = layout.lineStart[validFrom] + 1; k < end && col < lastCol; k++) {
+                belowVal[col] = gapRiver[k];
+                belowTag[col] = tagBelow;
+                col += 1 + wordLength[k];
+            }
+        }
+        int maxRiver = 0;
+        // Celdas calculadas, solo para RiverMetrics
+        long cells = 0;
+        // Palabras desde la última consulta al reloj
+        int sinceCheck = 0;
+        for (int i = validFrom - 1; i >= 0; i--) {
+            if (timed) {
+                sinceCheck += layout.lineEnd[i] - layout.lineStart[i];
+                if (sinceCheck >= CHECK_CELLS) {
+                    sinceCheck = 0;
+                    if (System.nanoTime() - deadline >= 0) {
+                        return CANCELLED;
+                    }
+                }
+            }
+            int tag = nextTag();
+            int rowMax = 0;
+            int lastCol = layout.lineLength[i] - 1;
+            int end = layout.lineEnd[i];
+            int col = wordLength[layout.lineStart[i]];
+            for (int k = layout.lineStart[i] + 1; k < end && col < lastCol; k++) {
+                // col >= 1 (la primera palabra no es vacía) y
+                // col + 1 <= lastCol < ancho: no hace falta validar límites
+                int maxNext = 0;
+                if (belowTag[col - 1] == tagBelow) {
+                    maxNext = belowVal[col - 1];
+                }
+                if (belowTag[col] == tagBelow && belowVal[col] > maxNext) {
+                    maxNext = belowVal[col];
+                }
+                if (belowTag[col + 1] == tagBelow && belowVal[col + 1] > maxNext) {
+                    maxNext = belowVal[col + 1];
+                }
+                int river = 1 + maxNext;
+                curVal[col] = river;
+                curTag[col] = tag;
+                if (river > rowMax) {
+                    rowMax = river;
+                }
+                if (gapRiver != null) {
+                    gapRiver[k] = river;
+                }
+                if (RiverMetrics.ENABLED) {
+                    cells++;
+                }
+                col += 1 + wordLength[k];
+            }
+            if (rowMax > maxRiver) {
+                maxRiver = rowMax;
+            }
+            if (suffixBest != null) {
+                suffixBest[i] = i + 1 < numRows ? Math.max(rowMax, suffixBest[i + 1]) : rowMax;
+            }
+            // La fila actual pasa a ser la inferior de la siguiente
+            int[] tmp = belowVal;
+            belowVal = curVal;
+            curVal = tmp;
+            tmp = belowTag;
+            belowTag = curTag;
+            curTag = tmp;
+            tagBelow = tag;
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.DP_ROWS.add(validFrom);
+            RiverMetrics.DP_CELLS.add(cells);
+        }
+        return maxRiver;
+    }
+
+    // ============================================================
+    // Igual que longestRiver, pero además reconstruye un río de
+    // longitud máxima: el que empieza más arriba (y más a la
+    // izquierda en empate) y, en cada fila, baja al vecino de mayor
+    // valor (izquierda, centro, derecha en empate).
+    //
+    // Guarda por cada espacio interior la palabra del espacio
+    // elegido en la fila de abajo (predecesor en la DP), así la
+    // reconstrucción es O(longitud del río). Esa memoria extra,
+    // O(palabras), solo se usa aquí: longestRiver no cambia.
+    // ============================================================
+    public RiverPath longestRiverPath(WordTokens tokens, LineLayout layout) {
+        int numRows = layout.numLines;
+        int width = layout.width;
+        int[] wordLength = tokens.wordLength;
+        // Por palabra k (espacio anterior a k): valor, columna y
+        // palabra del espacio siguiente del río (-1 si termina)
+        int[] gapRiver = new int[tokens.numWords];
+        int[] gapCol = new int[tokens.numWords];
+        int[] nextGap = new int[tokens.numWords];
+        // Palabra de cada columna en la fila actual / inferior
+        int[] curWord = new int[width + 1];
+        int[] belowWord = new int[width + 1];
+        ensureCapacity(width);
+        reserveTags(numRows + 1);
+        int[] curVal = valA;
+        int[] curTag = tagA;
+        int[] belowVal = valB;
+        int[] belowTag = tagB;
+        int tagBelow = nextTag();
+        for (int i = numRows - 1; i >= 0; i--) {
+            int tag = nextTag();
+            int lastCol = layout.lineLength[i] - 1;
+            int end = layout.lineEnd[i];
+            int col = wordLength[layout.lineStart[i]];
+            for (int k = layout.lineStart[i] + 1; k < end && col < lastCol; k++) {
+                int maxNext = 0;
+                int next = -1;
+                for (int c = col - 1; c <= col + 1; c++) {
+                    if (belowTag[c] == tagBelow && belowVal[c] > maxNext) {
+                        maxNext = belowVal[c];
+                        next = belowWord[c];
+                    }
+                }
+                curVal[col] = 1 + maxNext;
+                curTag[col] = tag;
+                curWord[col] = k;
+                gapRiver[k] = 1 + maxNext;
+                gapCol[k] = col;
+                nextGap[k] = next;
+                col += 1 + wordLength[k];
+            }
+            int[] tmp = belowVal;
+            belowVal = curVal;
+            curVal = tmp;
+            tmp = belowTag;
+            belowTag = curTag;
+            curTag = tmp;
+            tmp = belowWord;
+            belowWord = curWord;
+            curWord = tmp;
+            tagBelow = tag;
+        }
+        // Inicio: primer espacio (en orden de lectura) con el valor máximo
+        int best = 0;
+        int startWord = -1;
+        int startRow = -1;
+        for (int i = 0; i < numRows; i++) {
+            int lastCol = layout.lineLength[i] - 1;
+            int end = layout.lineEnd[i];
+            int col = wordLength[layout.lineStart[i]];
+            for (int k = layout.lineStart[i] + 1; k < end && col < lastCol; k++) {
+                if (gapRiver[k] > best) {
+                    best = gapRiver[k];
+                    startWord = k;
+                    startRow = i;
+                }
+                col += 1 + wordLength[k];
+            }
+        }
+        int[] columns = new int[best];
+        for (int r = 0, k = startWord; r < best; r++, k = nextGap[k]) {
+            columns[r] = gapCol[k];
+        }
+        return new RiverPath(layout, startRow, columns);
+    }
+
+    private void ensureCapacity(int width) {
+        if (valA.length < width) {
+            if (RiverMetrics.ENABLED) {
+                // Cuatro filas de int
+                RiverMetrics.DP_BYTES_ALLOCATED.add(16L * width);
+            }
+            valA = new int[width];
+            tagA = new int[width];
+            valB = new int[width];
+            tagB = new int[width];
+        }
+    }
+
+    // ============================================================
+    // Garantiza 'count' tags nuevos para la pasada que empieza. Si
+    // no alcanzan antes de Integer.MAX_VALUE, limpia las etiquetas
+    // aquí, al inicio: limpiarlas a mitad de la DP borraría la fila
+    // inferior, que sigue en uso con su tag viejo.
+    // ============================================================
+    private void reserveTags(int count) {
+        if (lastTag > Integer.MAX_VALUE - count) {
+            java.util.Arrays.fill(tagA, 0);
+            java.util.Arrays.fill(tagB, 0);
+            lastTag = 0;
+        }
+    }
+
+    // Tag nuevo (dentro de los reservados por reserveTags)
+    private int nextTag() {
+        return ++lastTag;
+    }
+}
@@ -0,0 +1,204 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+// ============================================================
+// Métricas opcionales de la búsqueda del ancho óptimo.
+//
+// Se activan con -Driver.metrics=true. ENABLED es static final:
+// con las métricas apagadas cada "if (RiverMetrics.ENABLED)" del
+// código instrumentado es código muerto que el JIT elimina, así
+// que no hay llamadas, boxing ni lecturas de System.nanoTime().
+//
+// Con las métricas activas:
+// - Tiempos por fase en ns: tokenización, layout, DP y poda.
+// - Anchos visitados, podados, early stops (río = número de
+//   líneas) y fines por cota (searchIsOver).
+// - Filas y celdas (espacios interiores) de la DP, bytes de las
+//   filas de la DP y bytes asignados por el hilo en cada búsqueda.
+// - Un MBean "riverp1:type=RiverMetrics" con los mismos valores.
+// - Al terminar el proceso, un JSON en -Driver.metrics.file (o en
+//   System.err si no se indica).
+//
+// Los registran los barridos sweep, incremental y parallel y la
+// búsqueda con saltos de V3 (v3-jumps). Los solvers v1, v2 y
+// v3-nojumps no registran nada. Solo sweep poda anchos con cotas
+// (PRUNE_NANOS, WIDTHS_PRUNED). En parallel, BOUND_STOPS y
+// EARLY_STOPS se cuentan por hilo (cada hilo que se detiene suma
+// uno).
+//
+// Los contadores son LongAdder: se pueden sumar desde varios hilos
+// (búsqueda paralela, BatchRunner) sin contención.
+// ============================================================
+public final class RiverMetrics implements RiverMetricsMBean {
+
+    public static final boolean ENABLED = Boolean.getBoolean("river.metrics");
+
+    static final LongAdder SEARCHES = new LongAdder();
+    static final LongAdder TOKENIZE_NANOS = new LongAdder();
+    static final LongAdder LAYOUT_NANOS = new LongAdder();
+    static final LongAdder DP_NANOS = new LongAdder();
+    static final LongAdder PRUNE_NANOS = new LongAdder();
+    static final LongAdder WIDTHS_VISITED = new LongAdder();
+    static final LongAdder WIDTHS_PRUNED = new LongAdder();
+    static final LongAdder EARLY_STOPS = new LongAdder();
+    static final LongAdder BOUND_STOPS = new LongAdder();
+    static final LongAdder DP_ROWS = new LongAdder();
+    static final LongAdder DP_CELLS = new LongAdder();
+    static final LongAdder DP_BYTES_ALLOCATED = new LongAdder();
+    static final LongAdder BYTES_ALLOCATED = new LongAdder();
+
+    private static final RiverMetrics INSTANCE = new RiverMetrics();
+
+    static {
+        if (ENABLED) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE,
+                        new ObjectName("riverp1:type=RiverMetrics"));
+            } catch (Exception e) {
+                System.err.println("No se pudo registrar el MBean de métricas: " + e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(RiverMetrics::dump));
+        }
+    }
+
+    private RiverMetrics() {
+    }
+
+    public static RiverMetrics get() {
+        return INSTANCE;
+    }
+
+    // ============================================================
+    // Bytes asignados hasta ahora por el hilo actual (-1 si la JVM
+    // no lo soporta). Se llama al inicio y al final de cada
+    // búsqueda, nunca dentro del barrido.
+    // ============================================================
+    static long threadAllocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    // Suma los bytes asignados desde 'before' (resultado de threadAllocatedBytes)
+    static void addAllocatedSince(long before) {
+        if (before >= 0) {
+            BYTES_ALLOCATED.add(threadAllocatedBytes() - before);
+        }
+    }
+
+    private static void dump() {
+        String path = System.getProperty("river.metrics.file");
+        String json = INSTANCE.toJson();
+        if (path == null) {
+            System.err.println(json);
+            return;
+        }
+        try {
+            Files.write(Paths.get(path), (json + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("No se pudieron guardar las métricas: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public long getSearches() {
+        return SEARCHES.sum();
+    }
+
+    @Override
+    public long getTokenizeNanos() {
+        return TOKENIZE_NANOS.sum();
+    }
+
+    @Override
+    public long getLayoutNanos() {
+        return LAYOUT_NANOS.sum();
+    }
+
+    @Override
+    public long getDpNanos() {
+        return DP_NANOS.sum();
+    }
+
+    @Override
+    public long getPruneNanos() {
+        return PRUNE_NANOS.sum();
+    }
+
+    @Override
+    public long getWidthsVisited() {
+        return WIDTHS_VISITED.sum();
+    }
+
+    @Override
+    public long getWidthsPruned() {
+        return WIDTHS_PRUNED.sum();
+    }
+
+    @Override
+    public long getEarlyStops() {
+        return EARLY_STOPS.sum();
+    }
+
+    @Override
+    public long getBoundStops() {
+        return BOUND_STOPS.sum();
+    }
+
+    @Override
+    public long getDpRows() {
+        return DP_ROWS.sum();
+    }
+
+    @Override
+    public long getDpCells() {
+        return DP_CELLS.sum();
+    }
+
+    @Override
+    public long getDpBytesAllocated() {
+        return DP_BYTES_ALLOCATED.sum();
+    }
+
+    @Override
+    public long getBytesAllocated() {
+        return BYTES_ALLOCATED.sum();
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder a : all()) {
+            a.reset();
+        }
+    }
+
+    private static LongAdder[] all() {
+        return new LongAdder[]{SEARCHES, TOKENIZE_NANOS, LAYOUT_NANOS, DP_NANOS, PRUNE_NANOS,
+            WIDTHS_VISITED, WIDTHS_PRUNED, EARLY_STOPS, BOUND_STOPS, DP_ROWS, DP_CELLS,
+            DP_BYTES_ALLOCATED, BYTES_ALLOCATED};
+    }
+
+    @Override
+    public String toJson() {
+        return "{\"searches\": " + getSearches()
+                + ", \"tokenizeNanos\": " + getTokenizeNanos()
+                + ", \"layoutNanos\": " + getLayoutNanos()
+                + ", \"dpNanos\": " + getDpNanos()
+                + ", \"pruneNanos\": " + getPruneNanos()
+                + ", \"widthsVisited\": " + getWidthsVisited()
+                + ", \"widthsPruned\": " + getWidthsPruned()
+                + ", \"earlyStops\": " + getEarlyStops()
+                + ", \"boundStops\": " + getBoundStops()
+                + ", \"dpRows\": " + getDpRows()
+                + ", \"dpCells\": " + getDpCells()
+                + ", \"dpBytesAllocated\": " + getDpBytesAllocated()
+                + ", \"bytesAllocated\": " + getBytesAllocated() + "}";
+    }
+}
@@ -0,0 +1,36 @@
+// ============================================================
+// Vista JMX de RiverMetrics (ver esa clase). Registrada como
+// "riverp1:type=RiverMetrics" cuando las métricas están activas.
+// ============================================================
+public interface RiverMetricsMBean {
+
+    long getSearches();
+
+    long getTokenizeNanos();
+
+    long getLayoutNanos();
+
+    long getDpNanos();
+
+    long getPruneNanos();
+
+    long getWidthsVisited();
+
+    long getWidthsPruned();
+
+    long getEarlyStops();
+
+    long getBoundStops();
+
+    long getDpRows();
+
+    long getDpCells();
+
+    long getDpBytesAllocated();
+
+    long getBytesAllocated();
+
+    String toJson();
+
+    void reset();
+}
@@ -0,0 +1,49 @@
+// ============================================================
+// Un río de longitud máxima junto con el layout en que aparece.
+//
+// El río ocupa las filas startRow .. startRow + length() - 1; en
+// la fila startRow + r está en la columna column(r). Si el layout
+// no tiene río, length() = 0 y startRow() = -1.
+//
+// El layout pertenece a este objeto: quien lo construye no debe
+// reutilizarlo para otro ancho.
+// ============================================================
+public final class RiverPath {
+
+    private final LineLayout layout;
+    private final int startRow;
+    private final int[] columns;
+
+    RiverPath(LineLayout layout, int startRow, int[] columns) {
+        this.layout = layout;
+        this.startRow = startRow;
+        this.columns = columns;
+    }
+
+    public LineLayout layout() {
+        return layout;
+    }
+
+    public int width() {
+        return layout.width;
+    }
+
+    public int length() {
+        return columns.length;
+    }
+
+    public int startRow() {
+        return startRow;
+    }
+
+    // Columna del río en la fila startRow + r
+    public int column(int r) {
+        return columns[r];
+    }
+
+    // Columna del río en la fila 'row', o -1 si el río no pasa por ella
+    public int columnAtRow(int row) {
+        int r = row - startRow;
+        return startRow >= 0 && r >= 0 && r < columns.length ? columns[r] : -1;
+    }
+}
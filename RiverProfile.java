@@ -0,0 +1,158 @@
+import java.util.Arrays;
+
+// ============================================================
+// Perfil ancho -> río de un texto, para responder muchas consultas
+// "mejor ancho entre a y b" sobre el mismo documento.
+//
+// Construcción (una vez): se recorren los layouts distintos
+// saltando de breakpoint en breakpoint, como la versión con saltos
+// de V3, y se calcula el río de cada uno con IncrementalLayout.
+// Aquí no se puede podar: cada layout necesita su río. El barrido
+// termina cuando queda una sola línea (sin río posible).
+//
+// Representación: runs de anchos consecutivos con el mismo río
+// (runStart[r] .. runStart[r+1] - 1), más una sparse table con el
+// índice del mejor run de cada rango de longitud potencia de 2.
+//
+// Consulta [a, b]: dos búsquedas binarias para los runs de los
+// extremos y una consulta O(1) a la sparse table: O(log runs).
+// Mismo criterio que el barrido: mayor río, y en empate el ancho
+// menor.
+// ============================================================
+public final class RiverProfile {
+
+    private final int minWidth;
+    // Último ancho con 2 o más líneas
+    private final int lastWidth;
+    private final int[] runStart;
+    private final int[] runRiver;
+    // sparse[j][r] = mejor run en [r, r + 2^j)
+    private final int[][] sparse;
+
+    private RiverProfile(int minWidth, int lastWidth, int[] runStart, int[] runRiver) {
+        this.minWidth = minWidth;
+        this.lastWidth = lastWidth;
+        this.runStart = runStart;
+        this.runRiver = runRiver;
+        int n = runStart.length;
+        int levels = 1;
+        while ((1 << levels) <= n) {
+            levels++;
+        }
+        sparse = new int[levels][];
+        sparse[0] = new int[n];
+        for (int r = 0; r < n; r++) {
+            sparse[0][r] = r;
+        }
+        for (int j = 1; j < levels; j++) {
+            int half = 1 << (j - 1);
+            int size = n - (1 << j) + 1;
+            sparse[j] = new int[size];
+            for (int r = 0; r < size; r++) {
+                sparse[j][r] = better(sparse[j - 1][r], sparse[j - 1][r + half]);
+            }
+        }
+    }
+
+    public static RiverProfile build(String text) {
+        return build(WordTokens.tokenize(text), Integer.MAX_VALUE);
+    }
+
+    public static RiverProfile build(WordTokens tokens) {
+        return build(tokens, Integer.MAX_VALUE);
+    }
+
+    // ============================================================
+    // Perfil solo hasta maxWidth (más barato si las consultas tienen
+    // un ancho máximo conocido).
+    // ============================================================
+    public static RiverProfile build(WordTokens tokens, int maxWidth) {
+        int minWidth = tokens.maxWordLength;
+        int limit = Math.min(maxWidth, tokens.textLength - 1);
+        int[] starts = new int[16];
+        int[] rivers = new int[16];
+        int runs = 0;
+        int lastWidth = minWidth - 1;
+        if (limit >= minWidth) {
+            IncrementalLayout layout = new IncrementalLayout(tokens, minWidth);
+            int width = minWidth;
+            while (width <= limit && layout.numLines() >= 2) {
+                int river = layout.longestRiver();
+                // Runs consecutivos con el mismo río se unen
+                if (runs == 0 || rivers[runs - 1] != river) {
+                    if (runs == starts.length) {
+                        starts = Arrays.copyOf(starts, runs * 2);
+                        rivers = Arrays.copyOf(rivers, runs * 2);
+                    }
+                    starts[runs] = width;
+                    rivers[runs] = river;
+                    runs++;
+                }
+                int next = layout.nextBreakpoint();
+                lastWidth = (int) Math.min((long) next - 1, limit);
+                if (next > limit) {
+                    break;
+                }
+                layout.advance(next);
+                width = next;
+            }
+        }
+        return new RiverProfile(minWidth, lastWidth,
+                Arrays.copyOf(starts, runs), Arrays.copyOf(rivers, runs));
+    }
+
+    // Mejor de dos runs: mayor río; en empate el de menor índice
+    private int better(int a, int b) {
+        if (runRiver[b] > runRiver[a]) {
+            return b;
+        }
+        if (runRiver[a] > runRiver[b]) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    // ============================================================
+    // {ancho, río} óptimo con ancho en [from, to]. Si ningún ancho
+    // del rango tiene 2 o más líneas, retorna {max(from, minWidth), 0}
+    // (la misma convención que findOptimalWidthAndRiver).
+    // ============================================================
+    public int[] query(int from, int to) {
+        int a = Math.max(from, minWidth);
+        int b = Math.min(to, lastWidth);
+        if (a > b || runStart.length == 0) {
+            return new int[]{Math.max(from, minWidth), 0};
+        }
+        int first = runIndex(a);
+        int last = runIndex(b);
+        int j = 31 - Integer.numberOfLeadingZeros(last - first + 1);
+        int best = better(sparse[j][first], sparse[j][last - (1 << j) + 1]);
+        return new int[]{Math.max(a, runStart[best]), runRiver[best]};
+    }
+
+    // Río en un ancho (0 si no hay 2 o más líneas o está fuera del perfil)
+    public int riverAt(int width) {
+        if (width < minWidth || width > lastWidth || runStart.length == 0) {
+            return 0;
+        }
+        return runRiver[runIndex(width)];
+    }
+
+    // Run que contiene 'width' (minWidth <= width <= lastWidth)
+    private int runIndex(int width) {
+        int i = Arrays.binarySearch(runStart, width);
+        return i >= 0 ? i : -i - 2;
+    }
+
+    public int runs() {
+        return runStart.length;
+    }
+
+    public int minWidth() {
+        return minWidth;
+    }
+
+    public int lastWidth() {
+        return lastWidth;
+    }
+}
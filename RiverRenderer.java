@@ -0,0 +1,43 @@
+import java.io.IOException;
+import java.io.Writer;
+
+// ============================================================
+// Escribe el layout de un RiverPath con el río marcado, línea por
+// línea, directamente en un Writer.
+//
+// Cada línea del layout es un tramo contiguo del texto original
+// (las palabras de una línea están separadas por los mismos
+// espacios que en el texto), así que se escribe con
+// Writer.write(texto, desde, longitud) sin crear la matriz de
+// Strings de un carácter de textToMatrix. Solo la celda del río
+// se reemplaza por la marca ('*' por defecto, como printMatrix).
+// ============================================================
+public final class RiverRenderer {
+
+    private RiverRenderer() {
+    }
+
+    public static void render(String texto, WordTokens tokens, RiverPath path, Writer out)
+            throws IOException {
+        render(texto, tokens, path, '*', out);
+    }
+
+    public static void render(String texto, WordTokens tokens, RiverPath path, char marca,
+                              Writer out) throws IOException {
+        LineLayout layout = path.layout();
+        for (int i = 0; i < layout.numLines; i++) {
+            int from = tokens.wordStart[layout.lineStart[i]];
+            int length = layout.lineLength[i];
+            int col = path.columnAtRow(i);
+            if (col < 0) {
+                out.write(texto, from, length);
+            } else {
+                out.write(texto, from, col);
+                out.write(marca);
+                out.write(texto, from + col + 1, length - col - 1);
+            }
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
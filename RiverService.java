@@ -0,0 +1,270 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// ============================================================
+// Servicio HTTP local que resuelve textos sin pagar el arranque
+// de la JVM en cada pedido.
+//
+//   POST /solve   cuerpo = texto (UTF-8; se usa la primera línea,
+//                 recortada como en ProblemaP1.main)
+//                 respuesta "ancho río\n"
+//   GET  /stats   JSON con contadores y latencias p50/p99
+//
+// - Cada pedido se atiende en un hilo virtual si la JVM los tiene
+//   (Java 21+, buscado por reflexión); si no, en un pool de hilos
+//   normal. Esperar el resultado es barato en ambos casos.
+// - El cálculo (CPU) va a un pool fijo de 'workers' hilos con una
+//   cola acotada. Si la cola está llena el pedido se rechaza con
+//   503 y Retry-After en vez de acumular trabajo sin límite.
+// - Pedidos simultáneos con el mismo texto (misma llave que
+//   ResultCache) comparten un único cálculo en curso.
+// - Se reutiliza el solver de ProblemaP1.main: la estrategia de
+//   --solver / -Driver.solver envuelta en la caché compartida.
+//
+// Configuración:
+//   --port=N o -Dp1.service.port=N        (8080; solo 127.0.0.1)
+//   -Dp1.service.workers=N                (núcleos disponibles)
+//   -Dp1.service.queue=N                  (64 textos en espera)
+// ============================================================
+public final class RiverService {
+
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final ThreadPoolExecutor compute;
+    private final RiverSolver solver;
+    private final boolean virtualThreads;
+    // Cálculos en curso por texto, para unir pedidos iguales
+    private final ConcurrentHashMap<ResultCache.Key, CompletableFuture<int[]>> inFlight =
+            new ConcurrentHashMap<>();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Latencies latencies = new Latencies(8192);
+
+    public RiverService(int port, int workers, int queue, RiverSolver solver) throws IOException {
+        this.solver = solver;
+        this.compute = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queue)));
+        ExecutorService virtual = virtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.requests = virtual != null ? virtual : Executors.newCachedThreadPool();
+        this.server = HttpServer.create(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/solve", this::handleSolve);
+        server.createContext("/stats", this::handleStats);
+        server.setExecutor(requests);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("p1.service.port", 8080);
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            }
+        }
+        int workers = Integer.getInteger("p1.service.workers",
+                Runtime.getRuntime().availableProcessors());
+        int queue = Integer.getInteger("p1.service.queue", 64);
+        RiverService service = new RiverService(port, workers, queue,
+                RiverSolvers.cached(RiverSolvers.requireTokens(RiverSolvers.fromArgs(args))));
+        service.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        System.err.println("Escuchando en http://127.0.0.1:" + service.port()
+                + " (hilos virtuales: " + (service.virtualThreads ? "sí" : "no") + ")");
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requests.shutdownNow();
+        compute.shutdownNow();
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor() si existe, o null
+    static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ============================================================
+    // Resultado para el texto: se une al cálculo en curso del mismo
+    // texto o encola uno nuevo. Lanza RejectedExecutionException si
+    // la cola de cálculo está llena.
+    // ============================================================
+    int[] solve(WordTokens tokens) throws InterruptedException, ExecutionException {
+        ResultCache.Key key = ResultCache.keyOf(tokens);
+        CompletableFuture<int[]> mine = new CompletableFuture<>();
+        CompletableFuture<int[]> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            compute.execute(() -> {
+                try {
+                    mine.complete(solver.solve(tokens));
+                } catch (Throwable e) {
+                    mine.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            mine.completeExceptionally(e);
+            inFlight.remove(key, mine);
+            throw e;
+        }
+        computed.increment();
+        // Se quita al terminar: los pedidos siguientes ya usan la caché
+        mine.whenComplete((r, e) -> inFlight.remove(key, mine));
+        return await(mine);
+    }
+
+    // Copia del resultado; un rechazo del cálculo compartido se
+    // propaga como rechazo también a los pedidos unidos a él
+    private static int[] await(CompletableFuture<int[]> future)
+            throws InterruptedException, ExecutionException {
+        try {
+            return future.get().clone();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                throw (RejectedExecutionException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private void handleSolve(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        try (exchange) {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Use POST con el texto en el cuerpo\n");
+                return;
+            }
+            CompactText texto;
+            try (InputStream in = exchange.getRequestBody()) {
+                texto = new BatchRunner.LineReader(new ByteArrayInputStream(in.readAllBytes()),
+                        StandardCharsets.UTF_8).readText();
+            }
+            if (texto == null) {
+                send(exchange, 400, "Texto vacío\n");
+                return;
+            }
+            int[] result;
+            try {
+                result = solve(WordTokens.tokenize(texto));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                send(exchange, 503, "Servicio ocupado\n");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                send(exchange, 503, "Interrumpido\n");
+                return;
+            } catch (ExecutionException e) {
+                send(exchange, 500, "Error: " + e.getCause() + "\n");
+                return;
+            }
+            send(exchange, 200, result[0] + " " + result[1] + "\n");
+            served.increment();
+            latencies.record(System.nanoTime() - start);
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            send(exchange, 200, statsJson() + "\n");
+        }
+    }
+
+    public String statsJson() {
+        long[] p = latencies.percentiles(0.50, 0.99);
+        return "{\"served\": " + served.sum()
+                + ", \"computed\": " + computed.sum()
+                + ", \"coalesced\": " + coalesced.sum()
+                + ", \"rejected\": " + rejected.sum()
+                + ", \"queued\": " + compute.getQueue().size()
+                + ", \"p50Micros\": " + p[0] / 1000
+                + ", \"p99Micros\": " + p[1] / 1000
+                + ", \"virtualThreads\": " + virtualThreads + "}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // ============================================================
+    // Latencias de los últimos 'capacity' pedidos atendidos, en un
+    // arreglo circular. Los percentiles se calculan ordenando una
+    // copia (solo al consultar /stats).
+    // ============================================================
+    static final class Latencies {
+
+        private final long[] samples;
+        private long count;
+
+        Latencies(int capacity) {
+            samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (count % samples.length)] = nanos;
+            count++;
+        }
+
+        // Percentil q (0..1) por el método del rango más cercano; 0 sin datos
+        long[] percentiles(double... qs) {
+            long[] sorted;
+            synchronized (this) {
+                sorted = Arrays.copyOf(samples, (int) Math.min(count, samples.length));
+            }
+            Arrays.sort(sorted);
+            long[] result = new long[qs.length];
+            for (int i = 0; i < qs.length && sorted.length > 0; i++) {
+                int rank = (int) Math.ceil(qs[i] * sorted.length);
+                result[i] = sorted[Math.max(0, rank - 1)];
+            }
+            return result;
+        }
+    }
+}
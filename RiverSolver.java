@@ -0,0 +1,24 @@
+// ============================================================
+// Estrategia para encontrar {ancho óptimo, río más largo}.
+//
+// Las implementaciones registradas están en RiverSolvers y se
+// eligen por nombre (--solver=nombre o -Driver.solver=nombre).
+//
+// Los solvers nuevos trabajan sobre WordTokens; los de las
+// versiones V1/V2 trabajan sobre el String y sobrescriben
+// solve(String) y solve(CompactText). Todos aceptan WordTokens.
+// ============================================================
+public interface RiverSolver {
+
+    String name();
+
+    int[] solve(WordTokens tokens);
+
+    default int[] solve(String text) {
+        return solve(WordTokens.tokenize(text));
+    }
+
+    default int[] solve(CompactText text) {
+        return solve(WordTokens.tokenize(text));
+    }
+}
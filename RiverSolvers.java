@@ -0,0 +1,238 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// ============================================================
+// Registro de estrategias (RiverSolver) por nombre.
+//
+//   v1          GreatestTypographicRiver (matriz de Strings)
+//   v2          GreatestTypographicRiverV2 (String[] por ancho)
+//   v3-jumps    V3 saltando de breakpoint en breakpoint
+//   v3-nojumps  V3 sin saltos
+//   sweep       barrido de ProblemaP1 con cotas (por defecto)
+//   incremental barrido con relayout incremental
+//   parallel    barrido repartido entre los núcleos disponibles,
+//               en un pool compartido por todas las búsquedas
+//   adaptive    elige entre v3-jumps y parallel según el texto
+//               (ver choose)
+//
+// Con -Dp1.checkpoint.dir guardan y retoman checkpoints sweep,
+// incremental y v3-jumps (ver SearchCheckpoint); adaptive entonces
+// no elige parallel.
+//
+// Los solvers registrados no usan la caché de resultados (así se
+// pueden medir); cached() envuelve cualquiera con ella.
+//
+// Todas las estrategias dan exactamente el mismo resultado (sin
+// tope fijo de ancho); solo cambia el tiempo, que depende del
+// corpus. DifferentialHarness lo verifica.
+// ============================================================
+public final class RiverSolvers {
+
+    public static final String PROPERTY = "river.solver";
+    public static final String DEFAULT = "adaptive";
+
+    private static final Map<String, RiverSolver> REGISTRY = new LinkedHashMap<>();
+
+    static {
+        register(legacy("v1", GreatestTypographicRiver::findOptimalWidthAndRiver));
+        register(legacy("v2", GreatestTypographicRiverV2::findOptimalWidthAndRiver));
+        register(of("v3-jumps", t -> GreatestTypographicRiverV3.findOptimalWidthAndRiverWithJumps(t, null)));
+        register(of("v3-nojumps", t -> GreatestTypographicRiverV3.findOptimalWidthAndRiverNoJumps(t, null)));
+        register(of("sweep", t -> ProblemaP1.findOptimalWidthAndRiver(t, RiverBound.DEFAULTS, null)));
+        register(of("incremental", t -> ProblemaP1.findOptimalWidthAndRiverIncremental(t, null)));
+        register(of("parallel", ParallelWidthSearch::findOptimalWidthAndRiver));
+        register(of("adaptive", t -> choose(t).solve(t)));
+    }
+
+    private RiverSolvers() {
+    }
+
+    public static synchronized void register(RiverSolver solver) {
+        REGISTRY.put(solver.name(), solver);
+    }
+
+    public static synchronized List<String> names() {
+        return new ArrayList<>(REGISTRY.keySet());
+    }
+
+    public static synchronized RiverSolver get(String name) {
+        RiverSolver solver = REGISTRY.get(name);
+        if (solver == null) {
+            throw new IllegalArgumentException(
+                    "Solver desconocido: " + name + " (disponibles: " + REGISTRY.keySet() + ")");
+        }
+        return solver;
+    }
+
+    // ============================================================
+    // Solver pedido por línea de comandos (--solver=nombre) o por
+    // la propiedad river.solver; si no hay ninguno, DEFAULT.
+    // ============================================================
+    public static RiverSolver fromArgs(String[] args) {
+        String name = System.getProperty(PROPERTY, DEFAULT);
+        for (String arg : args) {
+            if (arg.startsWith("--solver=")) {
+                name = arg.substring("--solver=".length());
+            }
+        }
+        return get(name);
+    }
+
+    // ============================================================
+    // Envuelve un solver con la caché compartida (ResultCache).
+    // Como todas las estrategias dan el mismo resultado, la llave
+    // no incluye el nombre del solver.
+    // ============================================================
+    public static RiverSolver cached(RiverSolver solver) {
+        return new RiverSolver() {
+            @Override
+            public String name() {
+                return solver.name();
+            }
+
+            @Override
+            public int[] solve(WordTokens tokens) {
+                return ResultCache.shared().computeIfAbsent(tokens, solver::solve);
+            }
+
+            @Override
+            public int[] solve(String text) {
+                return ResultCache.shared().computeIfAbsent(WordTokens.tokenize(text),
+                        t -> solver.solve(text));
+            }
+
+            @Override
+            public int[] solve(CompactText text) {
+                return ResultCache.shared().computeIfAbsent(WordTokens.tokenize(text),
+                        t -> solver.solve(text));
+            }
+        };
+    }
+
+    // ============================================================
+    // Elección adaptativa según el tamaño del texto y la
+    // distribución de longitudes de palabra:
+    // - Palabras de longitud casi uniforme (p.ej. A-Z): el río suele
+    //   llenar todas las líneas en los primeros anchos y el early
+    //   stopping corta enseguida; repartir anchos entre hilos no
+    //   sirve. Se mira antes que el tamaño.
+    // - Varios núcleos y texto largo: parallel, salvo con
+    //   checkpoints activos (parallel no los guarda).
+    // - Lo demás: v3-jumps. Evalúa un solo ancho por layout
+    //   distinto, sin podas ni preparación. En DifferentialHarness
+    //   (10 ejecuciones, un núcleo) fue el más rápido en 20 de 24
+    //   textos de 20000+ caracteres (total 1124 ms contra 1199 de
+    //   sweep y 1188 de incremental; a-z100000: 4 ms contra 33 y
+    //   16) y en 15 de 22 cortos (total 3.0 ms contra 5.5 y 4.7).
+    // ============================================================
+    public static RiverSolver choose(WordTokens tokens) {
+        if (wordLengthVariation(tokens) < 0.35) {
+            return get("v3-jumps");
+        }
+        if (tokens.textLength >= 20000 && !SearchCheckpoint.ENABLED
+                && Runtime.getRuntime().availableProcessors() >= 4) {
+            return get("parallel");
+        }
+        return get("v3-jumps");
+    }
+
+    // Coeficiente de variación (desviación / media) de las longitudes de palabra
+    static double wordLengthVariation(WordTokens tokens) {
+        int count = tokens.numWords;
+        if (count == 0) {
+            return 0;
+        }
+        double sum = 0;
+        double sumSq = 0;
+        for (int k = 0; k < count; k++) {
+            int len = tokens.wordLength[k];
+            sum += len;
+            sumSq += (double) len * len;
+        }
+        double mean = sum / count;
+        if (mean == 0) {
+            return 0;
+        }
+        double var = Math.max(0, sumSq / count - mean * mean);
+        return Math.sqrt(var) / mean;
+    }
+
+    private static RiverSolver of(String name, Function<WordTokens, int[]> body) {
+        return new RiverSolver() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int[] solve(WordTokens tokens) {
+                return body.apply(tokens);
+            }
+        };
+    }
+
+    // ============================================================
+    // Falla con un mensaje claro si el solver no acepta WordTokens.
+    // Lo usan quienes solo tienen tokens (RiverService, los
+    // trabajadores de RiverCluster) al arrancar, no a mitad de un
+    // pedido. Se prueba con un texto mínimo.
+    // ============================================================
+    public static RiverSolver requireTokens(RiverSolver solver) {
+        try {
+            solver.solve(WordTokens.tokenize("a b"));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException(
+                    "El solver " + solver.name() + " no acepta WordTokens: " + e, e);
+        }
+        return solver;
+    }
+
+    // ============================================================
+    // Texto con la misma forma que los tokens: cada palabra como
+    // 'x' repetida, separadas por un espacio, y espacios al final
+    // hasta textLength (las palabras vacías finales que descarta
+    // split(" ")). V1/V2 solo dependen de las longitudes de palabra
+    // y de la longitud del texto, así que dan el mismo resultado
+    // que con el texto original.
+    // ============================================================
+    static String shapeText(WordTokens tokens) {
+        char[] text = new char[tokens.textLength];
+        Arrays.fill(text, ' ');
+        int pos = 0;
+        for (int k = 0; k < tokens.numWords; k++) {
+            Arrays.fill(text, pos, pos + tokens.wordLength[k], 'x');
+            pos += tokens.wordLength[k] + 1;
+        }
+        return new String(text);
+    }
+
+    // Solvers de V1/V2 que trabajan sobre el String original; con
+    // tokens usan un texto de la misma forma (ver shapeText)
+    private static RiverSolver legacy(String name, Function<String, int[]> body) {
+        return new RiverSolver() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public int[] solve(WordTokens tokens) {
+                return body.apply(shapeText(tokens));
+            }
+
+            @Override
+            public int[] solve(String text) {
+                return body.apply(text);
+            }
+
+            @Override
+            public int[] solve(CompactText text) {
+                return body.apply(text.toString());
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// ============================================================
+// Tiempo de cada solver en función del tamaño de la entrada,
+// sobre textos de InputGenerator.
+//
+// Para cada forma y cada tamaño (multiplicando por 10 desde
+// --from hasta --max-chars) corre cada solver, imprime una fila
+// CSV y al final un gráfico de barras en escala logarítmica.
+// Si un solver supera --budget-ms en un tamaño, no se corre en
+// los tamaños mayores (se marca como "skipped").
+//
+// Uso:
+//   java ScalingBenchmark [--shapes a,b] [--solvers a,b]
+//                         [--from N] [--max-chars N] [--seed S]
+//                         [--budget-ms T]
+// ============================================================
+public final class ScalingBenchmark {
+
+    private ScalingBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        List<String> shapes = Arrays.asList("geometric", "uniform", "equal", "alternating", "giant");
+        List<String> solvers = Arrays.asList("sweep", "incremental", "v3-jumps", "parallel");
+        int from = 1000;
+        int maxChars = 1_000_000;
+        long seed = 42;
+        long budgetMillis = 30_000;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--shapes": shapes = Arrays.asList(args[++i].split(",")); break;
+                case "--solvers": solvers = Arrays.asList(args[++i].split(",")); break;
+                case "--from": from = Integer.parseInt(args[++i]); break;
+                case "--max-chars": maxChars = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--budget-ms": budgetMillis = Long.parseLong(args[++i]); break;
+                default: throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        List<String> plot = new ArrayList<>();
+        System.out.println("shape,chars,solver,millis,width,river");
+        for (String shape : shapes) {
+            boolean[] overBudget = new boolean[solvers.size()];
+            for (long chars = from; chars <= maxChars; chars *= 10) {
+                InputGenerator.Spec spec = new InputGenerator.Spec();
+                spec.shape = shape;
+                spec.chars = (int) chars;
+                spec.seed = seed;
+                spec.minWord = shape.equals("equal") ? 1 : 2;
+                spec.maxWord = shape.equals("geometric") ? 20 : 8;
+                spec.giantWord = Math.max(1, (int) Math.min(chars / 10, 2000));
+                String texto = InputGenerator.generate(spec);
+                for (int s = 0; s < solvers.size(); s++) {
+                    String name = solvers.get(s);
+                    if (overBudget[s]) {
+                        System.out.printf(Locale.ROOT, "%s,%d,%s,,,skipped%n", shape, chars, name);
+                        continue;
+                    }
+                    RiverSolver solver = RiverSolvers.get(name);
+                    // Calentamiento en un texto pequeño de la misma forma
+                    if (chars == from) {
+                        solver.solve(texto);
+                    }
+                    long start = System.nanoTime();
+                    int[] result = solver.solve(texto);
+                    double millis = (System.nanoTime() - start) / 1e6;
+                    overBudget[s] = millis > budgetMillis;
+                    System.out.printf(Locale.ROOT, "%s,%d,%s,%.3f,%d,%d%n",
+                            shape, chars, name, millis, result[0], result[1]);
+                    plot.add(String.format(Locale.ROOT, "%-12s %9d %-12s %s %.1f ms",
+                            shape, chars, name, bar(millis), millis));
+                }
+            }
+        }
+        System.out.println();
+        System.out.println("Tiempo (escala log10 desde 0.01 ms, cada '#' marca un factor 10):");
+        for (String line : plot) {
+            System.out.println(line);
+        }
+    }
+
+    // Barra logarítmica: 4 caracteres por década a partir de 0.01 ms
+    private static String bar(double millis) {
+        int length = (int) Math.max(1, Math.round(4 * Math.log10(Math.max(millis, 0.01) / 0.01)));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(i % 4 == 3 ? '#' : '=');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,300 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ============================================================
+// Checkpoint de una búsqueda de ancho larga, para retomarla si el
+// proceso muere.
+//
+// Se activa con -Dp1.checkpoint.dir=directorio. Cada búsqueda de
+// un texto de al menos p1.checkpoint.minLength caracteres (20000)
+// escribe su propio archivo <sha256>.<pid>-<n>.ckpt (el sha256 es
+// la llave de ResultCache) con:
+//   magic, digest, último ancho completo, mejor ancho, mejor río
+// Al empezar, la búsqueda reclama el checkpoint más avanzado de ese
+// texto que no sea de una búsqueda en curso (proceso vivo),
+// renombrándolo al suyo (el renombre es atómico: dos búsquedas
+// nunca reclaman el mismo archivo) y sigue desde el
+// ancho siguiente con ese incumbente. Dos búsquedas simultáneas del
+// mismo texto escriben archivos distintos, así que finish() de una
+// nunca borra el de la otra. finish() espera las escrituras
+// pendientes y borra el archivo antes de retornar; si la búsqueda
+// termina con una excepción, abandon() deja el archivo para
+// retomarla (también desde esta misma JVM).
+//
+// Costo en el barrido: reached() es un contador que solo cada
+// CHECK_EVERY anchos mira el reloj, y solo cada
+// p1.checkpoint.intervalMs (5000) pide una escritura. La escritura
+// (archivo temporal + reemplazo, como ResultCache.save) la hace un
+// único hilo de fondo, así que la búsqueda nunca espera el disco y
+// los archivos siempre quedan completos. Sin la propiedad, open()
+// retorna null y el barrido no hace nada más.
+//
+// Lo usan los barridos sweep e incremental de ProblemaP1 y la
+// búsqueda con saltos de V3; parallel reparte los anchos entre
+// hilos y no tiene un "último ancho completo", así que no lo usa
+// (por eso adaptive no lo elige mientras ENABLED).
+//
+// Una instancia pertenece a una sola búsqueda (un hilo). Si el
+// proceso muere, su archivo queda para la siguiente ejecución.
+// ============================================================
+public final class SearchCheckpoint {
+
+    private static final Path DIR = directory();
+    public static final boolean ENABLED = DIR != null;
+
+    private static final long INTERVAL_NANOS =
+            Long.getLong("p1.checkpoint.intervalMs", 5000) * 1_000_000L;
+    private static final int MIN_LENGTH = Integer.getInteger("p1.checkpoint.minLength", 20000);
+    // Anchos entre consultas al reloj
+    private static final int CHECK_EVERY = 64;
+    private static final int FILE_MAGIC = 0x53434B31; // "SCK1"
+
+    // Escrituras en orden, fuera del hilo de la búsqueda
+    private static final ExecutorService WRITER = ENABLED
+            ? Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "river-checkpoint");
+                t.setDaemon(true);
+                return t;
+            })
+            : null;
+
+    // Sufijo único por búsqueda: pid del proceso y un contador
+    private static final long PID = ProcessHandle.current().pid();
+    private static final AtomicLong SEARCHES = new AtomicLong();
+    // Archivos de búsquedas en curso en esta JVM (no se reclaman)
+    private static final Set<Path> LIVE = ConcurrentHashMap.newKeySet();
+
+    private final Path file;
+    private final byte[] digest;
+    // Estado leído del archivo; lastCompleted < 0 si no había
+    private final int lastCompleted;
+    private final int bestWidth;
+    private final int bestRiver;
+    private int countdown = CHECK_EVERY;
+    private long lastSave = System.nanoTime();
+
+    private SearchCheckpoint(Path file, byte[] digest, int lastCompleted, int bestWidth, int bestRiver) {
+        this.file = file;
+        this.digest = digest;
+        this.lastCompleted = lastCompleted;
+        this.bestWidth = bestWidth;
+        this.bestRiver = bestRiver;
+    }
+
+    private static Path directory() {
+        String dir = System.getProperty("p1.checkpoint.dir");
+        return dir == null ? null : Paths.get(dir);
+    }
+
+    // ============================================================
+    // Checkpoint de una búsqueda nueva del texto, con el estado del
+    // checkpoint reclamado si lo hay, o null si los checkpoints
+    // están apagados o el texto es corto.
+    // ============================================================
+    public static SearchCheckpoint open(WordTokens tokens) {
+        if (!ENABLED || tokens.textLength < MIN_LENGTH) {
+            return null;
+        }
+        byte[] digest = ResultCache.keyOf(tokens).digest;
+        String prefix = hex(digest);
+        Path file = DIR.resolve(prefix + "." + PID
+                + "-" + SEARCHES.incrementAndGet() + ".ckpt");
+        LIVE.add(file);
+        // Candidatos del mismo texto, del más avanzado al menos
+        List<int[]> states = new ArrayList<>();
+        List<Path> candidates = new ArrayList<>();
+        if (Files.isDirectory(DIR)) {
+            try (DirectoryStream<Path> dir = Files.newDirectoryStream(DIR, prefix + ".*.ckpt")) {
+                for (Path candidate : dir) {
+                    int[] state = inUse(candidate, prefix) ? null : read(candidate, digest);
+                    if (state != null) {
+                        int at = 0;
+                        while (at < states.size() && states.get(at)[0] >= state[0]) {
+                            at++;
+                        }
+                        states.add(at, state);
+                        candidates.add(at, candidate);
+                    }
+                }
+            } catch (IOException e) {
+                System.err.println("No se pudieron listar los checkpoints: " + e.getMessage());
+            }
+        }
+        for (int c = 0; c < candidates.size(); c++) {
+            try {
+                Files.move(candidates.get(c), file, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Otra búsqueda lo reclamó primero
+                continue;
+            }
+            int[] state = states.get(c);
+            return new SearchCheckpoint(file, digest, state[0], state[1], state[2]);
+        }
+        return new SearchCheckpoint(file, digest, -1, 0, 0);
+    }
+
+    // El archivo es de una búsqueda en curso: de esta JVM (LIVE), o
+    // de otro proceso que sigue vivo (el pid está en el nombre)
+    private static boolean inUse(Path candidate, String prefix) {
+        if (LIVE.contains(candidate)) {
+            return true;
+        }
+        String name = candidate.getFileName().toString();
+        int dash = name.indexOf('-', prefix.length() + 1);
+        try {
+            long pid = Long.parseLong(name.substring(prefix.length() + 1, dash));
+            return pid != PID && ProcessHandle.of(pid).isPresent();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // {último ancho completo, mejor ancho, mejor río}, o null si el
+    // archivo no es un checkpoint de este texto
+    private static int[] read(Path file, byte[] digest) {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            byte[] stored = new byte[digest.length];
+            if (in.readInt() == FILE_MAGIC) {
+                in.readFully(stored);
+                if (Arrays.equals(stored, digest)) {
+                    return new int[]{in.readInt(), in.readInt(), in.readInt()};
+                }
+            }
+            System.err.println("Checkpoint ignorado (" + file + "): no corresponde al texto");
+        } catch (IOException e) {
+            System.err.println("Checkpoint ignorado (" + file + "): " + e.getMessage());
+        }
+        return null;
+    }
+
+    public boolean hasState() {
+        return lastCompleted >= 0;
+    }
+
+    // Primer ancho que falta evaluar (solo con hasState())
+    public int resumeWidth() {
+        return lastCompleted + 1;
+    }
+
+    public int bestWidth() {
+        return bestWidth;
+    }
+
+    public int bestRiver() {
+        return bestRiver;
+    }
+
+    // ============================================================
+    // Llamado al empezar cada ancho: todos los anchos menores que
+    // 'width' están completos y el incumbente es (bestWidth,
+    // bestRiver). Casi siempre solo decrementa un contador.
+    // ============================================================
+    public void reached(int width, int bestWidth, int bestRiver) {
+        if (--countdown > 0) {
+            return;
+        }
+        countdown = CHECK_EVERY;
+        long now = System.nanoTime();
+        if (now - lastSave < INTERVAL_NANOS) {
+            return;
+        }
+        lastSave = now;
+        int lastCompleted = width - 1;
+        WRITER.execute(() -> write(lastCompleted, bestWidth, bestRiver));
+    }
+
+    // ============================================================
+    // Búsqueda terminada: el checkpoint ya no sirve. El borrado se
+    // encola detrás de las escrituras pendientes (el hilo de fondo
+    // las hace en orden) y se espera a que termine, así ninguna
+    // escritura tardía lo recrea y el archivo no sobrevive a la JVM.
+    // ============================================================
+    public void finish() {
+        awaitWriter(() -> {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("No se pudo borrar el checkpoint " + file + ": " + e.getMessage());
+            }
+        });
+        LIVE.remove(file);
+    }
+
+    // ============================================================
+    // Búsqueda cortada por una excepción: el archivo se queda en el
+    // disco para retomarla. Se esperan las escrituras pendientes
+    // (para que ninguna lo recree después de que otra búsqueda lo
+    // reclame) y se libera, así un reintento en esta misma JVM
+    // puede reclamarlo.
+    // ============================================================
+    public void abandon() {
+        awaitWriter(() -> { });
+        LIVE.remove(file);
+    }
+
+    // Ejecuta la tarea en el hilo de fondo, detrás de las escrituras
+    // pendientes, y espera que termine aunque el hilo esté interrumpido
+    private static void awaitWriter(Runnable task) {
+        Future<?> done = WRITER.submit(task);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException e) {
+                System.err.println("Error en el hilo de checkpoints: " + e.getCause());
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(int lastCompleted, int bestWidth, int bestRiver) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.write(digest);
+                out.writeInt(lastCompleted);
+                out.writeInt(bestWidth);
+                out.writeInt(bestRiver);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("No se pudo guardar el checkpoint " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,68 @@
+// ============================================================
+// Contadores de una búsqueda del ancho óptimo.
+//
+// Los métodos de búsqueda los reciben de forma opcional (null
+// si no interesan) y solo los incrementan, así el llamador
+// puede acumular varias búsquedas en el mismo objeto.
+// ============================================================
+public final class SearchStats {
+
+    // Layouts distintos para los que se evaluó la poda / el río
+    public long layoutsEvaluated;
+    // Layouts calculados (incluye los que no llegaron a evaluarse
+    // porque la búsqueda terminó en ese ancho)
+    public long layoutsComputed;
+    // Filas de la DP del río que se calcularon (modo incremental)
+    public long riverRowsComputed;
+    // Mayor ancho cuyo layout se llegó a calcular (el barrido se
+    // detiene antes de textLength - 1 en cuanto ningún ancho mayor
+    // puede ganar)
+    public int maxWidthReached;
+    // Anchos podados por cada cota, en el orden de boundNames
+    public String[] boundNames = new String[0];
+    public long[] prunedByBound = new long[0];
+
+    public void reset() {
+        layoutsEvaluated = 0;
+        layoutsComputed = 0;
+        riverRowsComputed = 0;
+        maxWidthReached = 0;
+        java.util.Arrays.fill(prunedByBound, 0);
+    }
+
+    // Registra que la búsqueda llegó hasta 'width'
+    void reached(int width) {
+        if (width > maxWidthReached) {
+            maxWidthReached = width;
+        }
+    }
+
+    // Prepara los contadores de poda para una lista de cotas. Si la
+    // lista es la misma que la anterior, se siguen acumulando.
+    void useBounds(RiverBound[] bounds) {
+        boolean same = boundNames.length == bounds.length;
+        for (int b = 0; same && b < bounds.length; b++) {
+            same = boundNames[b].equals(bounds[b].name());
+        }
+        if (!same) {
+            boundNames = new String[bounds.length];
+            for (int b = 0; b < bounds.length; b++) {
+                boundNames[b] = bounds[b].name();
+            }
+            prunedByBound = new long[bounds.length];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("layouts=").append(layoutsEvaluated)
+                .append(" computed=").append(layoutsComputed)
+                .append(" riverRows=").append(riverRowsComputed)
+                .append(" maxWidth=").append(maxWidthReached);
+        for (int b = 0; b < boundNames.length; b++) {
+            sb.append(' ').append(boundNames[b]).append('=').append(prunedByBound[b]);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.PriorityQueue;
+
+// ============================================================
+// Los K mejores anchos por longitud de río, en un solo barrido.
+//
+// Orden: mayor río primero; en empate, el ancho menor (el mismo
+// criterio del barrido principal, así que la primera posición es
+// exactamente findOptimalWidthAndRiver). Solo cuentan los anchos
+// con al menos 2 líneas.
+//
+// El barrido recorre los layouts distintos saltando de breakpoint
+// en breakpoint (ver WordTokens.nextBreakpoint) y calcula la DP una
+// vez por layout. Se mantiene un min-heap acotado a K con el peor
+// de los K mejores en la cima:
+// - Poda: con el heap lleno, un layout cuya cota no supera el río
+//   del K-ésimo no puede entrar (a igual río pierde por ser un
+//   ancho mayor que todos los del heap).
+// - Fin: como el número de líneas no crece con el ancho, en cuanto
+//   las líneas no superan al K-ésimo ningún ancho mayor entra.
+// Con K = 1 el costo es el de un barrido normal.
+//
+// distinctLayouts = true cuenta solo el menor ancho de cada layout
+// distinto (anchos consecutivos con el mismo layout dan el mismo
+// texto); con false cada ancho es una entrada.
+// ============================================================
+public final class TopWidths {
+
+    private final int[] widths;
+    private final int[] rivers;
+    private final int[] lines;
+
+    private TopWidths(int[] widths, int[] rivers, int[] lines) {
+        this.widths = widths;
+        this.rivers = rivers;
+        this.lines = lines;
+    }
+
+    public static TopWidths find(String text, int k, boolean distinctLayouts) {
+        return find(WordTokens.tokenize(text), k, distinctLayouts);
+    }
+
+    public static TopWidths find(WordTokens tokens, int k, boolean distinctLayouts) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k debe ser >= 1: " + k);
+        }
+        // Cima = peor entrada: menor río, y en empate mayor ancho
+        PriorityQueue<int[]> heap = new PriorityQueue<>(k + 1,
+                (a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]));
+        int minWidth = tokens.maxWordLength;
+        int maxWidth = tokens.textLength - 1;
+        LineLayout layout = new LineLayout();
+        RiverEngine engine = new RiverEngine();
+        RiverBound[] bounds = RiverBound.DEFAULTS;
+        int width = minWidth;
+        while (width <= maxWidth) {
+            tokens.layout(width, layout);
+            int numLines = layout.numLines;
+            boolean full = heap.size() == k;
+            int kthRiver = full ? heap.peek()[0] : -1;
+            if (numLines < 2 || numLines <= kthRiver) {
+                break;
+            }
+            int next = tokens.nextBreakpoint(layout);
+            if (!full || !pruned(tokens, layout, bounds, kthRiver)) {
+                int river = engine.longestRiver(tokens, layout);
+                // Todos los anchos de [width, next) tienen este layout
+                int last = distinctLayouts ? width : Math.min(next - 1, maxWidth);
+                for (int w = width; w <= last; w++) {
+                    if (heap.size() == k) {
+                        // Anchos crecientes con el mismo río: si este no
+                        // entra, los siguientes tampoco
+                        if (river <= heap.peek()[0]) {
+                            break;
+                        }
+                        heap.poll();
+                    }
+                    heap.add(new int[]{river, w, numLines});
+                }
+            }
+            width = next;
+        }
+        int n = heap.size();
+        int[] widths = new int[n];
+        int[] rivers = new int[n];
+        int[] lines = new int[n];
+        // Sacar del peor al mejor, llenando desde el final
+        for (int i = n - 1; i >= 0; i--) {
+            int[] e = heap.poll();
+            rivers[i] = e[0];
+            widths[i] = e[1];
+            lines[i] = e[2];
+        }
+        return new TopWidths(widths, rivers, lines);
+    }
+
+    // Alguna cota no supera el río del K-ésimo
+    private static boolean pruned(WordTokens tokens, LineLayout layout, RiverBound[] bounds,
+                                  int kthRiver) {
+        for (RiverBound bound : bounds) {
+            if (bound.upperBound(tokens, layout) <= kthRiver) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Número de entradas (< K si hay menos anchos con 2 o más líneas)
+    public int size() {
+        return widths.length;
+    }
+
+    public int width(int i) {
+        return widths[i];
+    }
+
+    public int river(int i) {
+        return rivers[i];
+    }
+
+    public int lines(int i) {
+        return lines[i];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < widths.length; i++) {
+            sb.append(widths[i]).append(' ').append(rivers[i]).append(' ').append(lines[i]).append('\n');
+        }
+        return sb.toString();
+    }
+}
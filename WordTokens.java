@@ -0,0 +1,284 @@
+import java.nio.ByteBuffer;
+
+// ============================================================
+// Texto tokenizado una sola vez en arreglos primitivos.
+//
+// wordStart[k]  = posición (en caracteres) donde empieza la
+//                 palabra k dentro del texto
+// wordLength[k] = longitud de la palabra k
+//
+// Reproduce exactamente la semántica de texto.split(" "):
+// cada espacio separa dos palabras (pueden quedar palabras
+// vacías si hay espacios consecutivos) y las palabras vacías
+// del final se descartan.
+//
+// A partir de esta representación se calcula el layout de
+// cualquier ancho sin crear Strings (ver layout()).
+//
+// wordPrefix[k] = suma de (wordLength[i] + 1) para i < k, es decir,
+// la columna donde empezaría la palabra k si todo el texto fuera
+// una sola línea. Una línea con las palabras [s, e) mide
+// wordPrefix[e] - wordPrefix[s] - 1, así que el fin de cada línea
+// se encuentra con una búsqueda en vez de sumar palabra por palabra.
+// ============================================================
+public final class WordTokens {
+
+    final int[] wordStart;
+    final int[] wordLength;
+    final int numWords;
+    // Longitud de la palabra más larga (= ancho mínimo válido)
+    final int maxWordLength;
+    // Longitud total del texto original en caracteres
+    final int textLength;
+    // Sumas prefijas de (longitud + 1), con numWords + 1 entradas
+    final int[] wordPrefix;
+
+    WordTokens(int[] wordStart, int[] wordLength, int numWords, int textLength) {
+        this.wordStart = wordStart;
+        this.wordLength = wordLength;
+        this.numWords = numWords;
+        this.textLength = textLength;
+        int max = 0;
+        int[] prefix = new int[numWords + 1];
+        for (int k = 0; k < numWords; k++) {
+            max = Math.max(max, wordLength[k]);
+            prefix[k + 1] = prefix[k] + wordLength[k] + 1;
+        }
+        this.maxWordLength = max;
+        this.wordPrefix = prefix;
+    }
+
+    // ============================================================
+    // Tokeniza el texto en una sola pasada, sin String.split.
+    // Complejidad: O(n)
+    // ============================================================
+    public static WordTokens tokenize(String texto) {
+        long t0 = RiverMetrics.ENABLED ? System.nanoTime() : 0;
+        int n = texto.length();
+        // Contar espacios para dimensionar los arreglos exactamente
+        int espacios = 0;
+        for (int i = 0; i < n; i++) {
+            if (texto.charAt(i) == ' ') {
+                espacios++;
+            }
+        }
+        int[] starts = new int[espacios + 1];
+        int[] lengths = new int[espacios + 1];
+        int numWords = 0;
+        int inicio = 0;
+        for (int i = 0; i <= n; i++) {
+            if (i == n || texto.charAt(i) == ' ') {
+                starts[numWords] = inicio;
+                lengths[numWords] = i - inicio;
+                numWords++;
+                inicio = i + 1;
+            }
+        }
+        // Igual que split(" "): descartar palabras vacías al final
+        while (numWords > 0 && lengths[numWords - 1] == 0) {
+            numWords--;
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.TOKENIZE_NANOS.add(System.nanoTime() - t0);
+        }
+        return new WordTokens(starts, lengths, numWords, n);
+    }
+
+    // ============================================================
+    // Tokeniza directamente los bytes de un CompactText, sin crear
+    // el String. Posiciones y longitudes quedan en columnas (las del
+    // String equivalente), así que el resultado es idéntico a
+    // tokenize(texto.toString()). El espacio es el byte 0x20 tanto
+    // en Latin-1 como en UTF-8.
+    // Complejidad: O(bytes)
+    // ============================================================
+    public static WordTokens tokenize(CompactText texto) {
+        return tokenize(ByteBuffer.wrap(texto.bytes), 0, texto.byteLength,
+                !texto.latin1, texto.charLength);
+    }
+
+    // ============================================================
+    // Tokeniza los bytes [from, to) de 'buf' (p.ej. un archivo
+    // mapeado en memoria, ver MappedInput). Con utf8 = false cada
+    // byte es una columna (Latin-1, o ASCII donde cada byte no
+    // ASCII se decodifica como un único U+FFFD); con utf8 = true los
+    // bytes deben ser UTF-8 bien formado. charLength es la longitud
+    // del texto en caracteres.
+    // ============================================================
+    static WordTokens tokenize(ByteBuffer buf, int from, int to, boolean utf8, int charLength) {
+        long t0 = RiverMetrics.ENABLED ? System.nanoTime() : 0;
+        int espacios = 0;
+        for (int i = from; i < to; i++) {
+            if (buf.get(i) == ' ') {
+                espacios++;
+            }
+        }
+        int[] starts = new int[espacios + 1];
+        int[] lengths = new int[espacios + 1];
+        int numWords = 0;
+        int inicio = 0;
+        int columna = 0;
+        for (int i = from; i <= to; i++) {
+            byte b = i == to ? (byte) ' ' : buf.get(i);
+            if (b == ' ') {
+                starts[numWords] = inicio;
+                lengths[numWords] = columna - inicio;
+                numWords++;
+                columna++;
+                inicio = columna;
+            } else {
+                columna += utf8 ? CompactText.columnsOf(b) : 1;
+            }
+        }
+        // Igual que split(" "): descartar palabras vacías al final
+        while (numWords > 0 && lengths[numWords - 1] == 0) {
+            numWords--;
+        }
+        if (RiverMetrics.ENABLED) {
+            RiverMetrics.TOKENIZE_NANOS.add(System.nanoTime() - t0);
+        }
+        return new WordTokens(starts, lengths, numWords, charLength);
+    }
+
+    public int numWords() {
+        return numWords;
+    }
+
+    public int maxWordLength() {
+        return maxWordLength;
+    }
+
+    public int textLength() {
+        return textLength;
+    }
+
+    public int wordStart(int k) {
+        return wordStart[k];
+    }
+
+    public int wordLength(int k) {
+        return wordLength[k];
+    }
+
+    // ============================================================
+    // Calcula el layout greedy para un ancho, equivalente a
+    // textToLines pero escribiendo índices en 'out'.
+    //
+    // Retorna false si alguna palabra no cabe en el ancho
+    // (el caso en que textToLines retorna null).
+    //
+    // Las palabras vacías al inicio de una línea se omiten,
+    // igual que en textToLines (la línea sigue "vacía").
+    // Complejidad: O(líneas · log(palabras por línea)) más las
+    // palabras vacías al inicio de línea (ver lineEnd)
+    // ============================================================
+    public boolean layout(int anchoLinea, LineLayout out) {
+        out.reset(anchoLinea);
+        if (maxWordLength > anchoLinea) {
+            return false;
+        }
+        int k = 0;
+        while (true) {
+            // Saltar palabras vacías al inicio de la línea
+            while (k < numWords && wordLength[k] == 0) {
+                k++;
+            }
+            if (k >= numWords) {
+                break;
+            }
+            int start = k;
+            k = lineEnd(start, anchoLinea);
+            out.add(start, k, wordPrefix[k] - wordPrefix[start] - 1);
+        }
+        return true;
+    }
+
+    // ============================================================
+    // Fin (exclusivo) de la línea greedy que empieza en la palabra
+    // 'start' con el ancho dado: el mayor e > start con
+    //   wordPrefix[e] - wordPrefix[start] - 1 <= ancho
+    // La palabra 'start' debe caber sola.
+    //
+    // wordPrefix es estrictamente creciente, así que se busca con
+    // pasos que se duplican desde start + 1 (búsqueda exponencial)
+    // y luego binaria dentro del último paso. Cuesta
+    // O(log(palabras de la línea)): en anchos grandes, con pocas
+    // líneas largas, el layout ya no recorre todas las palabras.
+    // ============================================================
+    int lineEnd(int start, int ancho) {
+        // long: con anchos cercanos a Integer.MAX_VALUE no se desborda
+        long limit = (long) wordPrefix[start] + 1 + ancho;
+        int lo = start + 1;
+        if (lo >= numWords || wordPrefix[lo + 1] > limit) {
+            return lo;
+        }
+        // Invariante: wordPrefix[lo] <= limit; se busca hi que no quepa
+        int step = 1;
+        int hi;
+        while (true) {
+            hi = lo + step;
+            if (hi >= numWords) {
+                hi = numWords;
+                if (wordPrefix[hi] <= limit) {
+                    return hi;
+                }
+                break;
+            }
+            if (wordPrefix[hi] > limit) {
+                break;
+            }
+            lo = hi;
+            step <<= 1;
+        }
+        // wordPrefix[lo] <= limit < wordPrefix[hi]
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (wordPrefix[mid] <= limit) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // ============================================================
+    // Siguiente ancho (mayor que layout.width) en el que cambia
+    // el layout, calculado sin probar anchos.
+    //
+    // El layout greedy solo cambia cuando alguna línea puede
+    // absorber la palabra que la rompió:
+    //   min sobre líneas i de lineLength[i] + 1 + wordLength[lineEnd[i]]
+    // Para cualquier ancho menor, todas las líneas se rompen en
+    // el mismo sitio, así que el layout es idéntico.
+    //
+    // Retorna Integer.MAX_VALUE si el layout tiene una sola línea
+    // (ya no puede cambiar). Para un layout inválido retorna el
+    // primer ancho válido.
+    // Complejidad: O(número de líneas)
+    // ============================================================
+    public int nextBreakpoint(LineLayout layout) {
+        if (layout.width < maxWordLength) {
+            return maxWordLength;
+        }
+        int next = Integer.MAX_VALUE;
+        // La última línea termina en la última palabra: no tiene
+        // palabra siguiente que absorber
+        for (int i = 0; i < layout.numLines - 1; i++) {
+            int w = layout.lineLength[i] + 1 + wordLength[layout.lineEnd[i]];
+            if (w < next) {
+                next = w;
+            }
+        }
+        return next;
+    }
+
+    // Primera palabra no vacía desde k: donde empieza una línea
+    // (ver IncrementalLayout)
+    int skipEmpty(int k) {
+        while (k < numWords && wordLength[k] == 0) {
+            k++;
+        }
+        return k;
+    }
+}